@@ -0,0 +1,64 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * the runner of cache benchmarks
+ * Filename:CacheBenchmarks.java
+ * Desc:the main class of benchmarks.jar, without arguments the throughput suite runs with 1, 2, 4 ... threads
+ * up to the processors and then the other suites once, with arguments it is the command line of JMH, such as
+ * java -jar commons-cache-benchmarks/target/benchmarks.jar SerializationBenchmark -prof gc
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 10:05 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public final class CacheBenchmarks {
+
+    private CacheBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        if (args.length > 0) {
+            new Runner(new CommandLineOptions(args)).run();
+            return;
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, processors)) {
+            new Runner(new OptionsBuilder()
+                    .include(HeapCacheThroughputBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            if (threads == processors) {
+                break;
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .include(HitLatencyBenchmark.class.getSimpleName())
+                .include(MemoryPerEntryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
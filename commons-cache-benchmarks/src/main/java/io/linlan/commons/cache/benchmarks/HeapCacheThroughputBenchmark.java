@@ -0,0 +1,103 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import io.linlan.commons.cache.BoundedHeapCacheManager;
+import io.linlan.commons.cache.CacheConstants;
+import io.linlan.commons.cache.CacheManager;
+import io.linlan.commons.cache.HeapCacheManager;
+import io.linlan.commons.cache.StorageMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the put and get throughput of heap cache managers
+ * Filename:HeapCacheThroughputBenchmark.java
+ * Desc:the keys are drawn at random from a fixed key space, so the gets hit and the puts overwrite,
+ * the threads are set by {@link CacheBenchmarks} from 1 to the processors, or by -t of JMH
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:45 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeapCacheThroughputBenchmark {
+
+    private static final int KEYS = 1 << 14;
+
+    @Param({"HEAP_SERIALIZED", "HEAP_REFERENCE", "BOUNDED_TINY_LFU"})
+    public String cache;
+
+    @Param({"10", "200"})
+    public int rows;
+
+    private CacheManager<String[][]> cacheManager;
+    private String[] keys;
+    private String[][] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (cache) {
+            case "HEAP_REFERENCE":
+                HeapCacheManager<String[][]> reference = new HeapCacheManager<>();
+                reference.setStorageMode(StorageMode.REFERENCE);
+                cacheManager = reference;
+                break;
+            case "BOUNDED_TINY_LFU":
+                cacheManager = new BoundedHeapCacheManager<>(KEYS);
+                break;
+            default:
+                cacheManager = new HeapCacheManager<>();
+        }
+        payload = Payloads.aggregateResult(rows, 4, 1);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "agg:" + i;
+            cacheManager.put(keys[i], payload, CacheConstants.NOT_EXPIRE);
+        }
+    }
+
+    @Benchmark
+    public String[][] get() {
+        return cacheManager.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public void put() {
+        cacheManager.put(keys[ThreadLocalRandom.current().nextInt(KEYS)], payload, CacheConstants.NOT_EXPIRE);
+    }
+}
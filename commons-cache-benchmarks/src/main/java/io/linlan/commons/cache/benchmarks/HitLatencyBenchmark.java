@@ -0,0 +1,97 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import io.linlan.commons.cache.BoundedHeapCacheManager;
+import io.linlan.commons.cache.CacheConstants;
+import io.linlan.commons.cache.CacheManager;
+import io.linlan.commons.cache.HeapCacheManager;
+import io.linlan.commons.cache.StorageMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the latency percentiles of cache hits
+ * Filename:HitLatencyBenchmark.java
+ * Desc:the sample time mode of JMH reports p50, p90, p99, p99.9 and the maximum of each get,
+ * every get is a hit of a String[][] payload
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:55 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitLatencyBenchmark {
+
+    private static final int KEYS = 4096;
+
+    @Param({"SERIALIZED", "REFERENCE", "COPY_ON_WRITE"})
+    public StorageMode mode;
+
+    @Param({"false", "true"})
+    public boolean bounded;
+
+    @Param({"100"})
+    public int rows;
+
+    private CacheManager<String[][]> cacheManager;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (bounded) {
+            BoundedHeapCacheManager<String[][]> cache = new BoundedHeapCacheManager<>(KEYS * 2);
+            cache.setStorageMode(mode);
+            cacheManager = cache;
+        } else {
+            HeapCacheManager<String[][]> cache = new HeapCacheManager<>();
+            cache.setStorageMode(mode);
+            cacheManager = cache;
+        }
+        String[][] payload = Payloads.aggregateResult(rows, 4, 1);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "agg:" + i;
+            cacheManager.put(keys[i], payload, CacheConstants.NOT_EXPIRE);
+        }
+    }
+
+    @Benchmark
+    public String[][] hit() {
+        return cacheManager.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import io.linlan.commons.cache.BoundedHeapCacheManager;
+import io.linlan.commons.cache.CacheConstants;
+import io.linlan.commons.cache.CacheManager;
+import io.linlan.commons.cache.HeapCacheManager;
+import io.linlan.commons.cache.StorageMode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the retained heap of each cache entry
+ * Filename:MemoryPerEntryBenchmark.java
+ * Desc:every iteration fills a new cache with distinct String[][] payloads and reports the heap retained
+ * after a full gc divided by the entries as the bytesPerEntry counter, the payload itself is included
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 10:00 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MemoryPerEntryBenchmark {
+
+    private static final int ENTRIES = 50000;
+
+    @Param({"SERIALIZED", "REFERENCE"})
+    public StorageMode mode;
+
+    @Param({"false", "true"})
+    public boolean bounded;
+
+    @Param({"20"})
+    public int rows;
+
+    private String[][][] payloads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payloads = new String[64][][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = Payloads.aggregateResult(rows, 4, i);
+        }
+    }
+
+    @Benchmark
+    public CacheManager<String[][]> fill(MemoryCounter counter) {
+        long before = usedHeap();
+        CacheManager<String[][]> cacheManager = newCache();
+        for (int i = 0; i < ENTRIES; i++) {
+            String[][] payload = payloads[i & (payloads.length - 1)];
+            cacheManager.put("agg:" + i, mode == StorageMode.REFERENCE ? copy(payload) : payload, CacheConstants.NOT_EXPIRE);
+        }
+        counter.bytesPerEntry = (usedHeap() - before) / ENTRIES;
+        return cacheManager;
+    }
+
+    private CacheManager<String[][]> newCache() {
+        if (bounded) {
+            BoundedHeapCacheManager<String[][]> cache = new BoundedHeapCacheManager<>(ENTRIES);
+            cache.setStorageMode(mode);
+            return cache;
+        }
+        HeapCacheManager<String[][]> cache = new HeapCacheManager<>();
+        cache.setStorageMode(mode);
+        return cache;
+    }
+
+    /** copy the payload, the values kept by reference must not share one payload
+     * @param payload the payload
+     * @return the deep copy of payload
+     */
+    private static String[][] copy(String[][] payload) {
+        String[][] copy = new String[payload.length][];
+        for (int i = 0; i < payload.length; i++) {
+            copy[i] = new String[payload[i].length];
+            for (int j = 0; j < payload[i].length; j++) {
+                copy[i][j] = new String(payload[i][j].toCharArray());
+            }
+        }
+        return copy;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MemoryCounter {
+        public long bytesPerEntry;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerEntry = 0;
+        }
+    }
+}
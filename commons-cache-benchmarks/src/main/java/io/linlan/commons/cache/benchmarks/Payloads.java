@@ -0,0 +1,60 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import java.util.Random;
+
+/**
+ * the payloads of cache benchmarks
+ * Filename:Payloads.java
+ * Desc:the String[][] like an aggregate result, the dimension columns repeat few members
+ * such as regions and months, the measure columns are decimal numbers, fixed seed for every run
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:40 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public final class Payloads {
+
+    private static final String[] REGIONS = {"华东", "华南", "华北", "西南", "西北", "东北", "华中"};
+    private static final String[] CHANNELS = {"online", "offline", "partner", "direct"};
+
+    private Payloads() {
+    }
+
+    /** create an aggregate result of two dimensions, one month dimension and the measures
+     * @param rows the rows of result
+     * @param measures the measure columns
+     * @param seed the seed of random
+     * @return the result table
+     */
+    public static String[][] aggregateResult(int rows, int measures, long seed) {
+        Random random = new Random(seed);
+        String[][] data = new String[rows][3 + measures];
+        for (int i = 0; i < rows; i++) {
+            data[i][0] = REGIONS[random.nextInt(REGIONS.length)];
+            data[i][1] = CHANNELS[random.nextInt(CHANNELS.length)];
+            data[i][2] = String.format("2020-%02d", 1 + random.nextInt(12));
+            for (int j = 0; j < measures; j++) {
+                data[i][3 + j] = String.valueOf(Math.round(random.nextDouble() * 1000000) / 100.0d);
+            }
+        }
+        return data;
+    }
+}
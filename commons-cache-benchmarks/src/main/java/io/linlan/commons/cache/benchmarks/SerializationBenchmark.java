@@ -0,0 +1,97 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache.benchmarks;
+
+import io.linlan.commons.cache.CacheSerializer;
+import io.linlan.commons.cache.CodecSerializer;
+import io.linlan.commons.cache.CompressingSerializer;
+import io.linlan.commons.cache.CompressionType;
+import io.linlan.commons.cache.HessianSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the serialization cost of cache values
+ * Filename:SerializationBenchmark.java
+ * Desc:the cost paid by {@link io.linlan.commons.cache.CacheObject} on every put and get of the serialized mode,
+ * hessian against the codecs and the compression of them, run with -prof gc for the bytes allocated by each
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:50 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"HESSIAN", "CODEC", "CODEC_LZF", "CODEC_GZIP"})
+    public String serializer;
+
+    @Param({"10", "1000", "20000"})
+    public int rows;
+
+    private CacheSerializer cacheSerializer;
+    private String[][] payload;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (serializer) {
+            case "HESSIAN":
+                cacheSerializer = new HessianSerializer();
+                break;
+            case "CODEC_LZF":
+                cacheSerializer = new CompressingSerializer(CodecSerializer.getDefault(), 0, CompressionType.LZF);
+                break;
+            case "CODEC_GZIP":
+                cacheSerializer = new CompressingSerializer(CodecSerializer.getDefault(), 0, CompressionType.GZIP);
+                break;
+            default:
+                cacheSerializer = CodecSerializer.getDefault();
+        }
+        payload = Payloads.aggregateResult(rows, 4, 1);
+        bytes = cacheSerializer.serialize(payload);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return cacheSerializer.serialize(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return cacheSerializer.deserialize(bytes);
+    }
+}
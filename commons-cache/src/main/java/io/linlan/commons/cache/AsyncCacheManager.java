@@ -0,0 +1,82 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * the Interface for asynchronous cache operation
+ * Filename:AsyncCacheManager.java
+ * Desc: the asynchronous cache manager returns futures instead of blocking the calling thread,
+ * so the cache lookups could overlap other I/O. the futures may complete on the thread of the cache,
+ * so the dependent stages should be light or run on an executor of their own
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 8:30 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface AsyncCacheManager<T> {
+
+    /** put data to key with expire time
+     * @param key the key for get and use
+     * @param data the value of cache
+     * @param expire the expire time
+     * @return the future completed when the value is stored
+     */
+    CompletableFuture<Void> put(String key, T data, long expire);
+
+    /** get the cache by input key
+     * @param key the input key, the unique key
+     * @return the future of the value of cache, completed with null on a miss
+     */
+    CompletableFuture<T> get(String key);
+
+    /**remove the key and the value of cache
+     * @param key the input key, the unique key
+     * @return the future completed when the value is removed
+     */
+    CompletableFuture<Void> remove(String key);
+
+    /** get the caches by input keys
+     * @param keys the input keys
+     * @return the future of the map of key and value in the order of keys, the missed keys are absent
+     */
+    default CompletableFuture<Map<String, T>> getAll(Collection<String> keys) {
+        List<String> keyList = new ArrayList<>(keys);
+        List<CompletableFuture<T>> futures = new ArrayList<>(keyList.size());
+        for (String key : keyList) {
+            futures.add(get(key));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, T> result = new LinkedHashMap<>();
+            for (int i = 0; i < keyList.size(); i++) {
+                T data = futures.get(i).join();
+                if (data != null) {
+                    result.put(keyList.get(i), data);
+                }
+            }
+            return result;
+        });
+    }
+}
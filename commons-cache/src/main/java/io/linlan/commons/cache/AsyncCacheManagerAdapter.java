@@ -0,0 +1,90 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * the asynchronous adapter of a local cache manager
+ * Filename:AsyncCacheManagerAdapter.java
+ * Desc:the operations of a local cache manager, such as {@link HeapCacheManager}, take less time than
+ * a hand-off to another thread, so they run on the calling thread and return completed futures,
+ * a failure is returned as an exceptionally completed future instead of thrown
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 8:35 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class AsyncCacheManagerAdapter<T> implements AsyncCacheManager<T> {
+
+    /**
+     * the local cache manager to be adapted
+     */
+    private final CacheManager<T> delegate;
+
+    /** constructor of AsyncCacheManagerAdapter
+     * @param delegate the local cache manager to be adapted
+     */
+    public AsyncCacheManagerAdapter(CacheManager<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String key, T data, long expire) {
+        return complete(() -> {
+            delegate.put(key, data, expire);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<T> get(String key) {
+        return complete(() -> delegate.get(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(String key) {
+        return complete(() -> {
+            delegate.remove(key);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, T>> getAll(Collection<String> keys) {
+        return complete(() -> delegate.getAll(keys));
+    }
+
+    public CacheManager<T> getDelegate() {
+        return delegate;
+    }
+
+    private static <R> CompletableFuture<R> complete(Supplier<R> operation) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            future.complete(operation.get());
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
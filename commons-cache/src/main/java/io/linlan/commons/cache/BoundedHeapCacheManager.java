@@ -0,0 +1,576 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * the bounded heap cache manager for project to use
+ * Filename:BoundedHeapCacheManager.java
+ * Desc:the heap cache manager limited by entry count or by serialized bytes,
+ * the victim is chosen by the {@link EvictionPolicy}, expired entries are removed when they are read,
+ * or freed in background by an {@link ExpirySweeper} when it is set.
+ * reads are lock free, the access order is recorded only when the eviction lock is free,
+ * so a read never waits for a writer
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:35 AM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class BoundedHeapCacheManager<T> implements CacheManager<T>, CacheUsage {
+
+    /**
+     * the default maximum entries of cache
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * the entries sampled from the LRU end when choosing a LFU victim
+     */
+    private static final int LFU_SAMPLES = 8;
+
+    /**
+     * the percent of capacity for the TinyLFU admission window
+     */
+    private static final double WINDOW_PERCENT = 0.01d;
+
+    /**
+     * the percent of main space for the TinyLFU protected segment
+     */
+    private static final double PROTECTED_PERCENT = 0.8d;
+
+    /**
+     * the assumed bytes of one entry to size the sketch of a weighted cache
+     */
+    private static final int AVERAGE_ENTRY_BYTES = 1024;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    /**
+     * the cache in ConcurrentMap to support lock free read
+     */
+    private final ConcurrentMap<String, Node> cache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final EvictionPolicy policy;
+    private final boolean weighted;
+    private final long capacity;
+    private final long windowCapacity;
+    private final long protectedCapacity;
+    private final FrequencySketch sketch;
+
+    private final AccessDeque window = new AccessDeque();
+    private final AccessDeque probation = new AccessDeque();
+    private final AccessDeque protect = new AccessDeque();
+
+    private long weightedSize;
+    private long windowWeight;
+    private long protectedWeight;
+    private volatile long evictionCount;
+    private volatile long expiredCount;
+
+    /**
+     * the storage mode of value, serialized by default
+     */
+    private StorageMode storageMode = StorageMode.SERIALIZED;
+
+    /**
+     * the active expiration engine, null means expired entries are only removed on read
+     */
+    private ExpirySweeper expirySweeper;
+
+    /**
+     * constructor of BoundedHeapCacheManager, limited by {@link #DEFAULT_MAXIMUM_SIZE} entries
+     */
+    public BoundedHeapCacheManager() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /** constructor of BoundedHeapCacheManager, limited by entry count with TinyLFU policy
+     * @param maximumSize the maximum entries of cache
+     */
+    public BoundedHeapCacheManager(long maximumSize) {
+        this(maximumSize, EvictionPolicy.TINY_LFU);
+    }
+
+    /** constructor of BoundedHeapCacheManager, limited by entry count
+     * @param maximumSize the maximum entries of cache
+     * @param policy the eviction policy
+     */
+    public BoundedHeapCacheManager(long maximumSize, EvictionPolicy policy) {
+        this(maximumSize, policy, false);
+    }
+
+    private BoundedHeapCacheManager(long capacity, EvictionPolicy policy, boolean weighted) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("the capacity of cache must be positive: " + capacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("the eviction policy of cache must not be null");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.weighted = weighted;
+        this.windowCapacity = Math.max(1, (long) (capacity * WINDOW_PERCENT));
+        this.protectedCapacity = (long) ((capacity - windowCapacity) * PROTECTED_PERCENT);
+        this.sketch = policy == EvictionPolicy.LRU ? null
+                : new FrequencySketch(weighted ? capacity / AVERAGE_ENTRY_BYTES : capacity);
+    }
+
+    /** create a bounded heap cache manager limited by the serialized bytes of values,
+     * the values kept by {@link StorageMode#REFERENCE} have no serialized size and weigh 1
+     * @param maximumWeight the maximum serialized bytes of cache
+     * @param policy the eviction policy
+     * @param <T> the type of cache value
+     * @return the bounded heap cache manager
+     */
+    public static <T> BoundedHeapCacheManager<T> weighted(long maximumWeight, EvictionPolicy policy) {
+        return new BoundedHeapCacheManager<>(maximumWeight, policy, true);
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        CacheObject o = new CacheObject(System.currentTimeMillis(), expire, data, storageMode);
+        evictionLock.lock();
+        try {
+            putLocked(key, o);
+        } finally {
+            evictionLock.unlock();
+        }
+        if (expirySweeper != null) {
+            expirySweeper.schedule(key, o, this::reclaim);
+        }
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        Node node = cache.get(key);
+        if (node == null) {
+            return null;
+        }
+        CacheObject o = node.value;
+        if (o.isExpired(System.currentTimeMillis())) {
+            reclaim(key, o);
+            return null;
+        }
+        if (evictionLock.tryLock()) {
+            try {
+                if (cache.get(key) == node) {
+                    onAccess(node);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return (T) o.getD();
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        evictionLock.lock();
+        try {
+            Node node = cache.get(key);
+            if (node != null) {
+                removeNode(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** put all the data under one acquisition of the eviction lock, the values are serialized before locking
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        long now = System.currentTimeMillis();
+        Map<String, CacheObject> objects = new LinkedHashMap<>();
+        for (Map.Entry<String, ? extends T> entry : data.entrySet()) {
+            objects.put(entry.getKey(), new CacheObject(now, expire, entry.getValue(), storageMode));
+        }
+        evictionLock.lock();
+        try {
+            for (Map.Entry<String, CacheObject> entry : objects.entrySet()) {
+                putLocked(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        if (expirySweeper != null) {
+            objects.forEach((key, o) -> expirySweeper.schedule(key, o, this::reclaim));
+        }
+    }
+
+    /** remove the keys under one acquisition of the eviction lock
+     * @param keys the input keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        evictionLock.lock();
+        try {
+            for (String key : keys) {
+                Node node = cache.get(key);
+                if (node != null) {
+                    removeNode(node);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** remove the expired key only when it is still mapped to the cache object
+     * @param key the input key, the unique key
+     * @param o the expired cache object
+     * @return true if the key is removed
+     */
+    boolean reclaim(String key, CacheObject o) {
+        evictionLock.lock();
+        try {
+            Node node = cache.get(key);
+            if (node == null || node.value != o) {
+                return false;
+            }
+            removeNode(node);
+            expiredCount++;
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** get the entries of cache, expired entries not yet removed are included
+     * @return the entries of cache
+     */
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    /** get the weighted size, the serialized bytes for a weighted cache or else the entries
+     * @return the weighted size of cache
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** get the serialized bytes of the values in cache, kept as the weighted size of a weighted cache
+     * @return the serialized bytes
+     */
+    @Override
+    public long getByteSize() {
+        if (weighted) {
+            return weightedSize();
+        }
+        long bytes = 0;
+        for (Node node : cache.values()) {
+            bytes += node.value.getSize();
+        }
+        return bytes;
+    }
+
+    /** get the count of entries evicted by the policy
+     * @return the eviction count
+     */
+    @Override
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** check the key without an access, so the eviction order and the frequency sketch are not touched
+     * @param key the input key, the unique key
+     * @return true if the key is present and not expired
+     */
+    @Override
+    public boolean containsKey(String key) {
+        Node node = cache.get(key);
+        return node != null && !node.value.isExpired(System.currentTimeMillis());
+    }
+
+    /** get the count of expired entries removed on read or by the expiry sweeper
+     * @return the expired count
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**set the storage mode of bounded heap cache manager, the entries put afterwards are kept in this mode
+     * @param storageMode the storage mode of value
+     */
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    /**set the expiry sweeper of bounded heap cache manager, the entries put afterwards are freed by it
+     * @param expirySweeper the started expiry sweeper
+     */
+    public void setExpirySweeper(ExpirySweeper expirySweeper) {
+        this.expirySweeper = expirySweeper;
+    }
+
+    private void putLocked(String key, CacheObject o) {
+        long weight = weigh(o);
+        Node node = cache.get(key);
+        if (weight > capacity) {
+            if (node != null) {
+                removeNode(node);
+            }
+            return;
+        }
+        if (node == null) {
+            node = new Node(key, o, weight);
+            cache.put(key, node);
+            onInsert(node);
+        } else {
+            node.value = o;
+            reweigh(node, weight);
+            onAccess(node);
+        }
+        evict();
+    }
+
+    private long weigh(CacheObject o) {
+        return weighted ? Math.max(1, o.getSize()) : 1;
+    }
+
+    private void onInsert(Node node) {
+        weightedSize += node.weight;
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (policy == EvictionPolicy.TINY_LFU) {
+            node.queue = WINDOW;
+            windowWeight += node.weight;
+            window.addLast(node);
+        } else {
+            node.queue = PROBATION;
+            probation.addLast(node);
+        }
+    }
+
+    private void onAccess(Node node) {
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (policy != EvictionPolicy.TINY_LFU || node.queue == WINDOW) {
+            dequeOf(node).moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedWeight += node.weight;
+            protect.addLast(node);
+            while (protectedWeight > protectedCapacity && protect.first() != node) {
+                Node demoted = protect.pollFirst();
+                protectedWeight -= demoted.weight;
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protect.moveToLast(node);
+        }
+    }
+
+    private void reweigh(Node node, long weight) {
+        long delta = weight - node.weight;
+        node.weight = weight;
+        weightedSize += delta;
+        if (node.queue == WINDOW) {
+            windowWeight += delta;
+        } else if (node.queue == PROTECTED) {
+            protectedWeight += delta;
+        }
+    }
+
+    private void evict() {
+        if (policy == EvictionPolicy.TINY_LFU) {
+            while (windowWeight > windowCapacity && window.first() != null) {
+                Node candidate = window.pollFirst();
+                windowWeight -= candidate.weight;
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                admit(candidate);
+            }
+        }
+        while (weightedSize > capacity) {
+            Node victim = policy == EvictionPolicy.LFU ? sampleVictim() : probation.first();
+            if (victim == null) {
+                victim = protect.first() != null ? protect.first() : window.first();
+            }
+            evictNode(victim);
+        }
+    }
+
+    /** TinyLFU admission, the candidate only stays when it is used more frequently than the victims
+     * @param candidate the node leaving the admission window
+     */
+    private void admit(Node candidate) {
+        while (weightedSize > capacity) {
+            Node victim = probation.first();
+            if (victim == candidate) {
+                victim = protect.first();
+            }
+            if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                evictNode(candidate);
+                return;
+            }
+            evictNode(victim);
+        }
+    }
+
+    private Node sampleVictim() {
+        Node victim = probation.first();
+        int minimum = Integer.MAX_VALUE;
+        Node node = victim;
+        for (int i = 0; i < LFU_SAMPLES && node != null; i++, node = node.next) {
+            int frequency = sketch.frequency(node.key);
+            if (frequency < minimum) {
+                minimum = frequency;
+                victim = node;
+            }
+        }
+        return victim;
+    }
+
+    private void evictNode(Node node) {
+        removeNode(node);
+        evictionCount++;
+    }
+
+    private void removeNode(Node node) {
+        cache.remove(node.key, node);
+        dequeOf(node).remove(node);
+        weightedSize -= node.weight;
+        if (node.queue == WINDOW) {
+            windowWeight -= node.weight;
+        } else if (node.queue == PROTECTED) {
+            protectedWeight -= node.weight;
+        }
+    }
+
+    private AccessDeque dequeOf(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROTECTED:
+                return protect;
+            default:
+                return probation;
+        }
+    }
+
+    /**
+     * the entry of cache, linked in one of the access ordered deques
+     */
+    private static final class Node {
+        private final String key;
+        private volatile CacheObject value;
+        private long weight;
+        private int queue;
+        private Node prev;
+        private Node next;
+
+        private Node(String key, CacheObject value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * the access ordered doubly linked deque, the first is the least recently used node
+     */
+    private static final class AccessDeque {
+        private Node head;
+        private Node tail;
+
+        private Node first() {
+            return head;
+        }
+
+        private Node pollFirst() {
+            Node node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        private void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        private void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        private void moveToLast(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
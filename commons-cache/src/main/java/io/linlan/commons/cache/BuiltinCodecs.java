@@ -0,0 +1,339 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * the built-in codecs of cache values
+ * Filename:BuiltinCodecs.java
+ * Desc:the codecs of String, byte[], String[], String[][] and the primitive arrays,
+ * with the tags below {@link CacheCodec#MIN_EXTENSION_TAG}, the tags must never change once the bytes are stored
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:25 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+final class BuiltinCodecs {
+
+    private BuiltinCodecs() {
+    }
+
+    /** get the built-in codecs
+     * @return the list of codecs
+     */
+    static List<CacheCodec<?>> codecs() {
+        return Arrays.asList(new StringCodec(), new ByteArrayCodec(), new StringArrayCodec(), new StringTableCodec(),
+                new IntArrayCodec(), new LongArrayCodec(), new DoubleArrayCodec(), new FloatArrayCodec(),
+                new ShortArrayCodec(), new CharArrayCodec(), new BooleanArrayCodec());
+    }
+
+    static final class StringCodec implements CacheCodec<String> {
+        @Override
+        public int getTag() {
+            return 1;
+        }
+
+        @Override
+        public Class<String> getType() {
+            return String.class;
+        }
+
+        @Override
+        public void write(String value, CacheBuffer buffer) {
+            buffer.writeString(value);
+        }
+
+        @Override
+        public String read(CacheBuffer buffer) {
+            return buffer.readString();
+        }
+    }
+
+    static final class ByteArrayCodec implements CacheCodec<byte[]> {
+        @Override
+        public int getTag() {
+            return 2;
+        }
+
+        @Override
+        public Class<byte[]> getType() {
+            return byte[].class;
+        }
+
+        @Override
+        public void write(byte[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            buffer.writeBytes(value, 0, value.length);
+        }
+
+        @Override
+        public byte[] read(CacheBuffer buffer) {
+            return buffer.readBytes(buffer.readLength(1));
+        }
+    }
+
+    static final class StringArrayCodec implements CacheCodec<String[]> {
+        @Override
+        public int getTag() {
+            return 3;
+        }
+
+        @Override
+        public Class<String[]> getType() {
+            return String[].class;
+        }
+
+        @Override
+        public void write(String[] value, CacheBuffer buffer) {
+            buffer.writeStrings(value);
+        }
+
+        @Override
+        public String[] read(CacheBuffer buffer) {
+            return buffer.readStrings();
+        }
+    }
+
+    static final class StringTableCodec implements CacheCodec<String[][]> {
+        @Override
+        public int getTag() {
+            return 4;
+        }
+
+        @Override
+        public Class<String[][]> getType() {
+            return String[][].class;
+        }
+
+        @Override
+        public void write(String[][] value, CacheBuffer buffer) {
+            buffer.writeStringTable(value);
+        }
+
+        @Override
+        public String[][] read(CacheBuffer buffer) {
+            return buffer.readStringTable();
+        }
+    }
+
+    static final class IntArrayCodec implements CacheCodec<int[]> {
+        @Override
+        public int getTag() {
+            return 5;
+        }
+
+        @Override
+        public Class<int[]> getType() {
+            return int[].class;
+        }
+
+        @Override
+        public void write(int[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (int v : value) {
+                buffer.writeInt(v);
+            }
+        }
+
+        @Override
+        public int[] read(CacheBuffer buffer) {
+            int[] value = new int[buffer.readLength(4)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readInt();
+            }
+            return value;
+        }
+    }
+
+    static final class LongArrayCodec implements CacheCodec<long[]> {
+        @Override
+        public int getTag() {
+            return 6;
+        }
+
+        @Override
+        public Class<long[]> getType() {
+            return long[].class;
+        }
+
+        @Override
+        public void write(long[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (long v : value) {
+                buffer.writeLong(v);
+            }
+        }
+
+        @Override
+        public long[] read(CacheBuffer buffer) {
+            long[] value = new long[buffer.readLength(8)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readLong();
+            }
+            return value;
+        }
+    }
+
+    static final class DoubleArrayCodec implements CacheCodec<double[]> {
+        @Override
+        public int getTag() {
+            return 7;
+        }
+
+        @Override
+        public Class<double[]> getType() {
+            return double[].class;
+        }
+
+        @Override
+        public void write(double[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (double v : value) {
+                buffer.writeDouble(v);
+            }
+        }
+
+        @Override
+        public double[] read(CacheBuffer buffer) {
+            double[] value = new double[buffer.readLength(8)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readDouble();
+            }
+            return value;
+        }
+    }
+
+    static final class FloatArrayCodec implements CacheCodec<float[]> {
+        @Override
+        public int getTag() {
+            return 8;
+        }
+
+        @Override
+        public Class<float[]> getType() {
+            return float[].class;
+        }
+
+        @Override
+        public void write(float[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (float v : value) {
+                buffer.writeFloat(v);
+            }
+        }
+
+        @Override
+        public float[] read(CacheBuffer buffer) {
+            float[] value = new float[buffer.readLength(4)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readFloat();
+            }
+            return value;
+        }
+    }
+
+    static final class ShortArrayCodec implements CacheCodec<short[]> {
+        @Override
+        public int getTag() {
+            return 9;
+        }
+
+        @Override
+        public Class<short[]> getType() {
+            return short[].class;
+        }
+
+        @Override
+        public void write(short[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (short v : value) {
+                buffer.writeShort(v);
+            }
+        }
+
+        @Override
+        public short[] read(CacheBuffer buffer) {
+            short[] value = new short[buffer.readLength(2)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readShort();
+            }
+            return value;
+        }
+    }
+
+    static final class CharArrayCodec implements CacheCodec<char[]> {
+        @Override
+        public int getTag() {
+            return 10;
+        }
+
+        @Override
+        public Class<char[]> getType() {
+            return char[].class;
+        }
+
+        @Override
+        public void write(char[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (char v : value) {
+                buffer.writeShort(v);
+            }
+        }
+
+        @Override
+        public char[] read(CacheBuffer buffer) {
+            char[] value = new char[buffer.readLength(2)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = (char) buffer.readShort();
+            }
+            return value;
+        }
+    }
+
+    static final class BooleanArrayCodec implements CacheCodec<boolean[]> {
+        @Override
+        public int getTag() {
+            return 11;
+        }
+
+        @Override
+        public Class<boolean[]> getType() {
+            return boolean[].class;
+        }
+
+        @Override
+        public void write(boolean[] value, CacheBuffer buffer) {
+            buffer.writeLength(value.length);
+            for (boolean v : value) {
+                buffer.writeBoolean(v);
+            }
+        }
+
+        @Override
+        public boolean[] read(CacheBuffer buffer) {
+            boolean[] value = new boolean[buffer.readLength(1)];
+            for (int i = 0; i < value.length; i++) {
+                value[i] = buffer.readBoolean();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * the byte buffer of cache codecs
+ * Filename:CacheBuffer.java
+ * Desc:a growable byte array to write values and a cursor to read them back, the numbers are big-endian,
+ * the lengths and counts are unsigned varints, and the strings are UTF-8 with a length of 0 for null.
+ * it is not thread safe, {@link CodecSerializer} keeps one buffer for each thread
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:15 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CacheBuffer {
+
+    /**
+     * the default capacity of new buffer
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private byte[] bytes;
+    private int position;
+    private int limit;
+
+    public CacheBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** constructor of CacheBuffer to write
+     * @param capacity the initial capacity
+     */
+    public CacheBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+        this.limit = capacity;
+    }
+
+    /** constructor of CacheBuffer to read the input bytes
+     * @param bytes the bytes to read
+     * @param offset the offset to read from
+     */
+    public CacheBuffer(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = bytes.length;
+    }
+
+    /**
+     * reset the buffer to write from the beginning, the capacity is kept
+     */
+    public void clear() {
+        position = 0;
+        limit = bytes.length;
+    }
+
+    /** get the written bytes
+     * @return the copy of bytes written
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, position);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int capacity() {
+        return bytes.length;
+    }
+
+    public void writeByte(int value) {
+        ensure(1);
+        bytes[position++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeShort(int value) {
+        ensure(2);
+        bytes[position++] = (byte) (value >>> 8);
+        bytes[position++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensure(4);
+        bytes[position++] = (byte) (value >>> 24);
+        bytes[position++] = (byte) (value >>> 16);
+        bytes[position++] = (byte) (value >>> 8);
+        bytes[position++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeFloat(float value) {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /** write an unsigned varint, 7 bits in each byte
+     * @param value the value not negative
+     */
+    public void writeVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+    }
+
+    /** write the length of an array, -1 for null
+     * @param length the length of array
+     */
+    public void writeLength(int length) {
+        writeVarInt(length + 1);
+    }
+
+    public void writeBytes(byte[] src, int offset, int length) {
+        ensure(length);
+        System.arraycopy(src, offset, bytes, position, length);
+        position += length;
+    }
+
+    /** write the string as UTF-8 without an intermediate byte array, the length is written first,
+     * an unpaired surrogate is written as '?' like {@link String#getBytes(java.nio.charset.Charset)}
+     * @param value the string, null allowed
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        int length = value.length();
+        int utf8Length = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                utf8Length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeVarInt(utf8Length + 1);
+        ensure(utf8Length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bytes[position++] = (byte) '?';
+            } else {
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    public void writeStrings(String[] value) {
+        if (value == null) {
+            writeLength(-1);
+            return;
+        }
+        writeLength(value.length);
+        for (String s : value) {
+            writeString(s);
+        }
+    }
+
+    /** write the table of strings row by row
+     * @param value the table of strings, null rows allowed
+     */
+    public void writeStringTable(String[][] value) {
+        if (value == null) {
+            writeLength(-1);
+            return;
+        }
+        writeLength(value.length);
+        for (String[] row : value) {
+            writeStrings(row);
+        }
+    }
+
+    public byte readByte() {
+        check(1);
+        return bytes[position++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public short readShort() {
+        check(2);
+        return (short) (((bytes[position++] & 0xFF) << 8) | (bytes[position++] & 0xFF));
+    }
+
+    public int readInt() {
+        check(4);
+        return ((bytes[position++] & 0xFF) << 24) | ((bytes[position++] & 0xFF) << 16)
+                | ((bytes[position++] & 0xFF) << 8) | (bytes[position++] & 0xFF);
+    }
+
+    public long readLong() {
+        check(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint at " + position);
+    }
+
+    /** read the length written by {@link #writeLength(int)}, checked against the bytes left
+     * @param elementBytes the minimum bytes of one element
+     * @return the length of array, -1 for null
+     */
+    public int readLength(int elementBytes) {
+        int length = readVarInt() - 1;
+        if (length > 0 && (long) length * elementBytes > limit - position) {
+            throw new IllegalStateException("the length " + length + " is beyond the limit " + limit + " at " + position);
+        }
+        return length;
+    }
+
+    public byte[] readBytes(int length) {
+        check(length);
+        byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+        position += length;
+        return value;
+    }
+
+    /** read the string written by {@link #writeString(String)}
+     * @return the string, null if null is written
+     */
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        check(length);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public String[] readStrings() {
+        int length = readLength(1);
+        if (length < 0) {
+            return null;
+        }
+        String[] value = new String[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = readString();
+        }
+        return value;
+    }
+
+    /** read the table written by {@link #writeStringTable(String[][])}
+     * @return the table of strings
+     */
+    public String[][] readStringTable() {
+        int rows = readLength(1);
+        if (rows < 0) {
+            return null;
+        }
+        String[][] value = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            value[i] = readStrings();
+        }
+        return value;
+    }
+
+    private void ensure(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(position + length, bytes.length << 1));
+            limit = bytes.length;
+        }
+    }
+
+    private void check(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new IllegalStateException("read " + length + " bytes beyond the limit " + limit + " at " + position);
+        }
+    }
+}
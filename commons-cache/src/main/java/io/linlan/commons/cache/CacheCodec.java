@@ -0,0 +1,68 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the Interface of the codec for one value type
+ * Filename:CacheCodec.java
+ * Desc: a codec writes the fields of a value straight into a {@link CacheBuffer}
+ * instead of the object graph walk of hessian, {@link CodecSerializer} picks it by the exact class of value.
+ * the codecs of other modules are loaded by {@link java.util.ServiceLoader}
+ * from META-INF/services/io.linlan.commons.cache.CacheCodec, their tags must be in
+ * [{@link #MIN_EXTENSION_TAG}, {@link #MAX_TAG}], the smaller tags are kept for the built-in codecs.
+ * a codec must only write to the input buffer, never serialize through {@link CacheObject} again
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:12 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface CacheCodec<T> {
+
+    /**
+     * the minimum tag of the codecs of other modules
+     */
+    int MIN_EXTENSION_TAG = 16;
+
+    /**
+     * the maximum tag of codecs, larger first bytes belong to the fallback serializer
+     */
+    int MAX_TAG = 31;
+
+    /** get the tag written as the first byte, unique between codecs
+     * @return the tag of codec
+     */
+    int getTag();
+
+    /** get the exact class of value handled by this codec
+     * @return the class of value
+     */
+    Class<T> getType();
+
+    /** write the value to the buffer
+     * @param value the value of cache, not null
+     * @param buffer the buffer to write to
+     */
+    void write(T value, CacheBuffer buffer);
+
+    /** read the value from the buffer
+     * @param buffer the buffer to read from, positioned after the tag
+     * @return the value of cache
+     */
+    T read(CacheBuffer buffer);
+}
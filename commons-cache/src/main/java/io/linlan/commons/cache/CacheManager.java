@@ -15,6 +15,10 @@
  */
 package io.linlan.commons.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * the Interface for cache operation
  * Filename:CacheManager.java
@@ -46,4 +50,38 @@ public interface CacheManager<T> {
      * @param key the input key, the unique key
      */
     void remove(String key);
+
+    /** get the caches by input keys, the implementations could fetch them in one round trip
+     * @param keys the input keys
+     * @return the map of key and value in the order of keys, the missed keys are absent
+     */
+    default Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            T data = get(key);
+            if (data != null) {
+                result.put(key, data);
+            }
+        }
+        return result;
+    }
+
+    /** put all the data with the same expire time, the implementations could write them in one round trip
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    default void putAll(Map<String, ? extends T> data, long expire) {
+        for (Map.Entry<String, ? extends T> entry : data.entrySet()) {
+            put(entry.getKey(), entry.getValue(), expire);
+        }
+    }
+
+    /**remove the keys and the values of cache
+     * @param keys the input keys
+     */
+    default void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            remove(key);
+        }
+    }
 }
@@ -15,18 +15,13 @@
  */
 package io.linlan.commons.cache;
 
-import com.caucho.hessian.io.Hessian2Input;
-import com.caucho.hessian.io.Hessian2Output;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.Serializable;
 
 /**
  * the base cache object for commons to use
  * Filename:CacheObject.java
- * Desc:the base cache object for Ehcache, Heap to use
+ * Desc:the base cache object for Ehcache, Heap to use,
+ * the values are serialized by a pluggable {@link CacheSerializer}
  *
  * @author Linlan
  * CreateTime:2020-08-17 6:22 PM
@@ -39,22 +34,50 @@ public class CacheObject implements Serializable {
     private long t1;
     private long expire;
     private byte[] d;
+    private int size;
+
+    /**
+     * the time to recompute the value in nanoseconds, 0 if unknown, used by the probabilistic early expiration
+     */
+    private long delta;
+
+    /**
+     * the value kept by reference, used by {@link StorageMode#REFERENCE} and {@link StorageMode#COPY_ON_WRITE}
+     */
+    private transient Object v;
+
+    /**
+     * the serializer of all the cache objects, null means {@link CodecSerializer#getDefault()}
+     */
+    private static volatile CacheSerializer serializer;
 
     public CacheObject(long t1, long expire, Object d) {
+        this(t1, expire, d, StorageMode.SERIALIZED);
+    }
+
+    /** constructor of CacheObject with the storage mode of value
+     * @param t1 the time of put in milliseconds
+     * @param expire the expire time
+     * @param d the value of cache
+     * @param mode the storage mode of value
+     */
+    public CacheObject(long t1, long expire, Object d, StorageMode mode) {
         this.t1 = t1;
         this.expire = expire;
         if (d != null) {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            Hessian2Output ho = new Hessian2Output(os);
-            try {
-                ho.startMessage();
-                ho.writeObject(d);
-                ho.completeMessage();
-                ho.close();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+            switch (mode) {
+                case REFERENCE:
+                    this.v = d;
+                    break;
+                case COPY_ON_WRITE:
+                    byte[] bytes = serialize(d);
+                    this.size = bytes.length;
+                    this.v = deserialize(bytes);
+                    break;
+                default:
+                    this.d = serialize(d);
+                    this.size = this.d.length;
             }
-            this.d = os.toByteArray();
         }
     }
 
@@ -74,21 +97,66 @@ public class CacheObject implements Serializable {
         this.expire = expire;
     }
 
+    public long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(long delta) {
+        this.delta = delta;
+    }
+
+    /** check the cache object is expired at the input time,
+     * a negative expire, such as {@link CacheConstants#NOT_EXPIRE}, never expires
+     * @param now the current time in milliseconds
+     * @return true if the cache object is expired
+     */
+    public boolean isExpired(long now) {
+        return expire >= 0 && now >= t1 + expire;
+    }
+
+    /** get the serialized size of the cache value
+     * @return the length of the serialized bytes, 0 when the value is null or kept by reference
+     */
+    public int getSize() {
+        return size;
+    }
+
     public Object getD() {
         if (d != null) {
-            ByteArrayInputStream is = new ByteArrayInputStream(d);
-            Hessian2Input hi = new Hessian2Input(is);
-            try {
-                hi.startMessage();
-                Object o = hi.readObject();
-                hi.completeMessage();
-                hi.close();
-                return o;
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            return deserialize(d);
         }
-        return d;
+        return v;
+    }
+
+    /** serialize the value by the serializer of cache objects
+     * @param o the value of cache
+     * @return the serialized bytes
+     */
+    public static byte[] serialize(Object o) {
+        return getSerializer().serialize(o);
+    }
+
+    /** deserialize the bytes by the serializer of cache objects
+     * @param bytes the serialized bytes
+     * @return the value of cache
+     */
+    public static Object deserialize(byte[] bytes) {
+        return getSerializer().deserialize(bytes);
+    }
+
+    /** get the serializer of cache objects
+     * @return the serializer set, or else {@link CodecSerializer#getDefault()}
+     */
+    public static CacheSerializer getSerializer() {
+        CacheSerializer s = serializer;
+        return s == null ? CodecSerializer.getDefault() : s;
+    }
+
+    /**set the serializer of cache objects, the bytes stored before must be readable by it
+     * @param serializer the serializer, null for the default
+     */
+    public static void setSerializer(CacheSerializer serializer) {
+        CacheObject.serializer = serializer;
     }
 
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * the redis serializer over a cache serializer
+ * Filename:CacheRedisSerializer.java
+ * Desc:set it as the value serializer of the redis template of {@link RedisCacheManager},
+ * so the values sent to redis are written by the codecs and compressed as the local caches
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:30 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CacheRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CacheSerializer serializer;
+
+    /** constructor of CacheRedisSerializer
+     * @param serializer the cache serializer, such as {@link CompressingSerializer}
+     */
+    public CacheRedisSerializer(CacheSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public byte[] serialize(Object o) throws SerializationException {
+        if (o == null) {
+            return EMPTY;
+        }
+        try {
+            return serializer.serialize(o);
+        } catch (RuntimeException e) {
+            throw new SerializationException("failed to serialize " + o.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return serializer.deserialize(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("failed to deserialize " + bytes.length + " bytes", e);
+        }
+    }
+}
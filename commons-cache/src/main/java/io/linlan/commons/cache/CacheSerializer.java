@@ -0,0 +1,44 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the Interface of the serializer of cache values
+ * Filename:CacheSerializer.java
+ * Desc: the serializer used by {@link CacheObject} to keep values as bytes,
+ * the default is {@link CodecSerializer} with hessian as the fallback
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:10 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface CacheSerializer {
+
+    /** serialize the value to bytes
+     * @param o the value of cache
+     * @return the serialized bytes
+     */
+    byte[] serialize(Object o);
+
+    /** deserialize the bytes to value
+     * @param bytes the serialized bytes
+     * @return the value of cache
+     */
+    Object deserialize(byte[] bytes);
+}
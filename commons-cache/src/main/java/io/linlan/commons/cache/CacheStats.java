@@ -0,0 +1,171 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * the snapshot of cache statistics
+ * Filename:CacheStats.java
+ * Desc:the immutable values taken by {@link CacheStatsCounter#snapshot(CacheUsage)},
+ * the latencies are in nanoseconds, the usage values are -1 when the cache does not report them
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:45 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CacheStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long removeCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final double averageLoadPenalty;
+    private final long size;
+    private final long byteSize;
+    private final long evictionCount;
+    private final long getLatencyP50;
+    private final long getLatencyP99;
+    private final long getLatencyP999;
+    private final long putLatencyP99;
+    private final long loadLatencyP99;
+    private final double compressionRatio;
+    private final Map<String, Long> prefixAccesses;
+
+    public CacheStats(long hitCount, long missCount, long putCount, long removeCount,
+                      long loadSuccessCount, long loadFailureCount, double averageLoadPenalty,
+                      long size, long byteSize, long evictionCount,
+                      long getLatencyP50, long getLatencyP99, long getLatencyP999,
+                      long putLatencyP99, long loadLatencyP99, double compressionRatio,
+                      Map<String, Long> prefixAccesses) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.removeCount = removeCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.averageLoadPenalty = averageLoadPenalty;
+        this.size = size;
+        this.byteSize = byteSize;
+        this.evictionCount = evictionCount;
+        this.getLatencyP50 = getLatencyP50;
+        this.getLatencyP99 = getLatencyP99;
+        this.getLatencyP999 = getLatencyP999;
+        this.putLatencyP99 = putLatencyP99;
+        this.loadLatencyP99 = loadLatencyP99;
+        this.compressionRatio = compressionRatio;
+        this.prefixAccesses = Collections.unmodifiableMap(prefixAccesses);
+    }
+
+    /** get the ratio of hits to all the gets
+     * @return the hit rate, 1.0 when nothing is requested
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0d : (double) hitCount / requests;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public long getRemoveCount() {
+        return removeCount;
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public double getAverageLoadPenalty() {
+        return averageLoadPenalty;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getGetLatencyP50() {
+        return getLatencyP50;
+    }
+
+    public long getGetLatencyP99() {
+        return getLatencyP99;
+    }
+
+    public long getGetLatencyP999() {
+        return getLatencyP999;
+    }
+
+    public long getPutLatencyP99() {
+        return putLatencyP99;
+    }
+
+    public long getLoadLatencyP99() {
+        return loadLatencyP99;
+    }
+
+    /** get the ratio of raw bytes to stored bytes, recorded by {@link CompressingSerializer}
+     * @return the compression ratio, 1.0 when nothing is recorded
+     */
+    public double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    public Map<String, Long> getPrefixAccesses() {
+        return prefixAccesses;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", hitRate=" + getHitRate()
+                + ", putCount=" + putCount + ", removeCount=" + removeCount
+                + ", loadSuccessCount=" + loadSuccessCount + ", loadFailureCount=" + loadFailureCount
+                + ", averageLoadPenalty=" + averageLoadPenalty + ", size=" + size + ", byteSize=" + byteSize
+                + ", evictionCount=" + evictionCount + ", getLatencyP50=" + getLatencyP50
+                + ", getLatencyP99=" + getLatencyP99 + ", getLatencyP999=" + getLatencyP999
+                + ", putLatencyP99=" + putLatencyP99 + ", loadLatencyP99=" + loadLatencyP99
+                + ", compressionRatio=" + compressionRatio + "}";
+    }
+}
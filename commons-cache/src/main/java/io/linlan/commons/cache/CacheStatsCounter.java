@@ -0,0 +1,221 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the statistics recorder of cache operations
+ * Filename:CacheStatsCounter.java
+ * Desc:all the counters are striped {@link LongAdder}, so recording never blocks the cache operations.
+ * the accesses are also counted by key prefix, the part before the first delimiter,
+ * at most {@link #MAXIMUM_PREFIXES} prefixes are tracked and the others are counted as {@link #OTHER_PREFIX}
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:35 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CacheStatsCounter {
+
+    /**
+     * the default delimiter of key prefix
+     */
+    public static final char DEFAULT_DELIMITER = ':';
+
+    /**
+     * the maximum prefixes tracked
+     */
+    public static final int MAXIMUM_PREFIXES = 256;
+
+    /**
+     * the prefix of the keys beyond the maximum prefixes
+     */
+    public static final String OTHER_PREFIX = "*";
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LatencyHistogram getLatency = new LatencyHistogram();
+    private final LatencyHistogram putLatency = new LatencyHistogram();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+    private final ConcurrentMap<String, LongAdder> prefixAccesses = new ConcurrentHashMap<>();
+    private final char delimiter;
+
+    public CacheStatsCounter() {
+        this(DEFAULT_DELIMITER);
+    }
+
+    /** constructor of CacheStatsCounter
+     * @param delimiter the delimiter of key prefix
+     */
+    public CacheStatsCounter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /** record the result of one get
+     * @param key the input key
+     * @param hit true if the value is found
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordGet(String key, boolean hit, long nanos) {
+        (hit ? hits : misses).increment();
+        getLatency.record(nanos);
+        recordPrefix(key);
+    }
+
+    /** record the hits and misses of a batch get
+     * @param hitCount the found keys
+     * @param missCount the missed keys
+     * @param nanos the latency of the batch in nanoseconds
+     */
+    public void recordGetAll(int hitCount, int missCount, long nanos) {
+        hits.add(hitCount);
+        misses.add(missCount);
+        getLatency.record(nanos);
+    }
+
+    /** record the puts
+     * @param count the count of put entries
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordPut(int count, long nanos) {
+        puts.add(count);
+        putLatency.record(nanos);
+    }
+
+    /** record the removes
+     * @param count the count of removed keys
+     */
+    public void recordRemove(int count) {
+        removes.add(count);
+    }
+
+    /** record a successful load of value
+     * @param nanos the load time in nanoseconds
+     */
+    public void recordLoadSuccess(long nanos) {
+        loadSuccesses.increment();
+        loadLatency.record(nanos);
+    }
+
+    /** record a failed load of value
+     * @param nanos the load time in nanoseconds
+     */
+    public void recordLoadFailure(long nanos) {
+        loadFailures.increment();
+        loadLatency.record(nanos);
+    }
+
+    /** record the bytes of one serialized payload
+     * @param raw the bytes before compression
+     * @param stored the bytes kept in cache
+     */
+    public void recordSerialized(long raw, long stored) {
+        rawBytes.add(raw);
+        storedBytes.add(stored);
+    }
+
+    /** take a snapshot of the counters
+     * @param usage the usage of cache storage, null if the cache does not report it
+     * @return the snapshot of statistics
+     */
+    public CacheStats snapshot(CacheUsage usage) {
+        return new CacheStats(hits.sum(), misses.sum(), puts.sum(), removes.sum(),
+                loadSuccesses.sum(), loadFailures.sum(), loadLatency.getMean(),
+                usage == null ? -1 : usage.size(), usage == null ? -1 : usage.getByteSize(),
+                usage == null ? -1 : usage.getEvictionCount(),
+                getLatency.getPercentile(0.5), getLatency.getPercentile(0.99), getLatency.getPercentile(0.999),
+                putLatency.getPercentile(0.99), loadLatency.getPercentile(0.99), getCompressionRatio(), getPrefixAccesses());
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getRemoveCount() {
+        return removes.sum();
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccesses.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    /** get the ratio of raw bytes to stored bytes of the serialized payloads
+     * @return the compression ratio, 1.0 when nothing is recorded
+     */
+    public double getCompressionRatio() {
+        long stored = storedBytes.sum();
+        return stored == 0 ? 1.0d : (double) rawBytes.sum() / stored;
+    }
+
+    public LatencyHistogram getGetLatency() {
+        return getLatency;
+    }
+
+    public LatencyHistogram getPutLatency() {
+        return putLatency;
+    }
+
+    public LatencyHistogram getLoadLatency() {
+        return loadLatency;
+    }
+
+    /** get the accesses by key prefix
+     * @return the sorted map of prefix and access count
+     */
+    public Map<String, Long> getPrefixAccesses() {
+        Map<String, Long> prefixes = new TreeMap<>();
+        prefixAccesses.forEach((prefix, count) -> prefixes.put(prefix, count.sum()));
+        return prefixes;
+    }
+
+    private void recordPrefix(String key) {
+        int index = key.indexOf(delimiter);
+        String prefix = index < 0 ? key : key.substring(0, index);
+        LongAdder count = prefixAccesses.get(prefix);
+        if (count == null) {
+            if (prefixAccesses.size() >= MAXIMUM_PREFIXES) {
+                prefix = OTHER_PREFIX;
+            }
+            count = prefixAccesses.computeIfAbsent(prefix, p -> new LongAdder());
+        }
+        count.increment();
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Map;
+
+/**
+ * the Interface of cache statistics exposed by JMX
+ * Filename:CacheStatsMXBean.java
+ * Desc: registered by {@link StatsCacheManager#registerMBean(String)},
+ * every attribute is read from the striped counters when it is requested
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:50 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface CacheStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getPutCount();
+
+    long getRemoveCount();
+
+    long getLoadSuccessCount();
+
+    long getLoadFailureCount();
+
+    double getAverageLoadPenalty();
+
+    long getSize();
+
+    long getByteSize();
+
+    long getEvictionCount();
+
+    long getGetLatencyP50();
+
+    long getGetLatencyP99();
+
+    long getGetLatencyP999();
+
+    double getCompressionRatio();
+
+    Map<String, Long> getPrefixAccesses();
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the Interface for the usage of cache storage
+ * Filename:CacheUsage.java
+ * Desc: the local cache managers implement it, so the statistics could report the entries,
+ * the serialized bytes and the evictions they hold
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:20 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface CacheUsage {
+
+    /** get the entries of cache, expired entries not yet removed may be included
+     * @return the entries of cache
+     */
+    long size();
+
+    /** get the serialized bytes of the values in cache
+     * @return the serialized bytes, 0 for the values kept by reference
+     */
+    long getByteSize();
+
+    /** get the count of entries evicted to make room
+     * @return the eviction count
+     */
+    long getEvictionCount();
+
+    /** check the key is present and not expired, the value is not deserialized and no access is recorded
+     * @param key the input key, the unique key
+     * @return true if the key is present
+     */
+    boolean containsKey(String key);
+}
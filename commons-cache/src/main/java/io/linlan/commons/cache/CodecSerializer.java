@@ -0,0 +1,151 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * the codec serializer of cache values
+ * Filename:CodecSerializer.java
+ * Desc:the values with a {@link CacheCodec} of their exact class are written as the tag of codec and the fields,
+ * the other values go to the fallback serializer, hessian by default.
+ * the tags are in [1, {@link CacheCodec#MAX_TAG}] and hessian bytes begin with 'p',
+ * so the bytes stored by the fallback before are still read back.
+ * one buffer is kept for each thread, only the result array is allocated for each value
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:40 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CodecSerializer implements CacheSerializer {
+
+    /**
+     * the buffers beyond this capacity are dropped after use, not kept by the thread
+     */
+    private static final int MAXIMUM_RETAINED = 1 << 20;
+
+    private static volatile CodecSerializer defaultSerializer;
+
+    private final ThreadLocal<CacheBuffer[]> buffers = ThreadLocal.withInitial(() -> new CacheBuffer[1]);
+
+    private final Map<Class<?>, CacheCodec<?>> codecsByType = new HashMap<>();
+
+    private final CacheCodec<?>[] codecsByTag = new CacheCodec<?>[CacheCodec.MAX_TAG + 1];
+
+    private final CacheSerializer fallback;
+
+    /** constructor of CodecSerializer
+     * @param codecs the codecs, the tags must be unique
+     * @param fallback the serializer of the values without codec
+     */
+    public CodecSerializer(Collection<? extends CacheCodec<?>> codecs, CacheSerializer fallback) {
+        for (CacheCodec<?> codec : codecs) {
+            int tag = codec.getTag();
+            if (tag < 1 || tag > CacheCodec.MAX_TAG) {
+                throw new IllegalArgumentException("the tag of " + codec.getClass().getName() + " must be in [1, "
+                        + CacheCodec.MAX_TAG + "]: " + tag);
+            }
+            if (codecsByTag[tag] != null) {
+                throw new IllegalArgumentException("the tag " + tag + " of " + codec.getClass().getName()
+                        + " is used by " + codecsByTag[tag].getClass().getName());
+            }
+            codecsByTag[tag] = codec;
+            codecsByType.put(codec.getType(), codec);
+        }
+        this.fallback = fallback;
+    }
+
+    /** get the default serializer, the built-in codecs and the codecs found by {@link ServiceLoader}
+     * with hessian as the fallback
+     * @return the default serializer
+     */
+    public static CodecSerializer getDefault() {
+        if (defaultSerializer == null) {
+            synchronized (CodecSerializer.class) {
+                if (defaultSerializer == null) {
+                    List<CacheCodec<?>> codecs = new ArrayList<>(BuiltinCodecs.codecs());
+                    for (CacheCodec<?> codec : ServiceLoader.load(CacheCodec.class, CodecSerializer.class.getClassLoader())) {
+                        if (codec.getTag() < CacheCodec.MIN_EXTENSION_TAG) {
+                            throw new IllegalArgumentException("the tag of " + codec.getClass().getName()
+                                    + " must be at least " + CacheCodec.MIN_EXTENSION_TAG + ": " + codec.getTag());
+                        }
+                        codecs.add(codec);
+                    }
+                    defaultSerializer = new CodecSerializer(codecs, new HessianSerializer());
+                }
+            }
+        }
+        return defaultSerializer;
+    }
+
+    /**
+     * @param o the value of cache
+     * @return the tag and fields for a value with codec, or else the bytes of the fallback
+     */
+    @Override
+    public byte[] serialize(Object o) {
+        CacheCodec<Object> codec = o == null ? null : (CacheCodec<Object>) codecsByType.get(o.getClass());
+        if (codec == null) {
+            return fallback.serialize(o);
+        }
+        CacheBuffer[] slot = buffers.get();
+        CacheBuffer buffer = slot[0];
+        if (buffer == null) {
+            buffer = new CacheBuffer();
+        } else {
+            buffer.clear();
+        }
+        slot[0] = null;
+        try {
+            buffer.writeByte(codec.getTag());
+            codec.write(o, buffer);
+            return buffer.toByteArray();
+        } finally {
+            if (buffer.capacity() <= MAXIMUM_RETAINED) {
+                slot[0] = buffer;
+            }
+        }
+    }
+
+    /**
+     * @param bytes the serialized bytes
+     * @return the value of cache
+     */
+    @Override
+    public Object deserialize(byte[] bytes) {
+        int tag = bytes.length == 0 ? 0 : bytes[0];
+        if (tag < 1 || tag > CacheCodec.MAX_TAG) {
+            return fallback.deserialize(bytes);
+        }
+        CacheCodec<?> codec = codecsByTag[tag];
+        if (codec == null) {
+            throw new IllegalStateException("no codec is registered for the tag " + tag);
+        }
+        return codec.read(new CacheBuffer(bytes, 1));
+    }
+
+    public CacheSerializer getFallback() {
+        return fallback;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import io.linlan.commons.core.ZipUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the compressing serializer of cache payloads
+ * Filename:CompressingSerializer.java
+ * Desc:the payloads of the decorated serializer at or above the threshold are compressed,
+ * a compressed payload begins with the header of {@link #MAGIC}, the id of {@link CompressionType}
+ * and the varint of raw length, the smaller payloads and the ones that do not shrink are kept as they are.
+ * set it by {@link CacheObject#setSerializer(CacheSerializer)} for the local caches,
+ * or wrap it by {@link CacheRedisSerializer} as the value serializer of redis template
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:20 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CompressingSerializer implements CacheSerializer {
+
+    /**
+     * the first byte of compressed payload, never the first byte of codec or hessian bytes
+     */
+    public static final byte MAGIC = 'z';
+
+    /**
+     * the default threshold of payload to compress, 4K bytes
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /**
+     * the id in header of a payload kept as it is, only used when the payload itself begins with {@link #MAGIC}
+     */
+    private static final int STORED = 0;
+
+    private final CacheSerializer serializer;
+    private final int threshold;
+    private final CompressionType type;
+
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+
+    /**
+     * the counter to record the compression, null means it is not recorded
+     */
+    private CacheStatsCounter statsCounter;
+
+    public CompressingSerializer() {
+        this(CodecSerializer.getDefault(), DEFAULT_THRESHOLD, CompressionType.LZF);
+    }
+
+    /** constructor of CompressingSerializer
+     * @param serializer the serializer to be decorated
+     * @param threshold the minimum bytes of payload to compress
+     * @param type the compression type of new payloads, all the types are read back
+     */
+    public CompressingSerializer(CacheSerializer serializer, int threshold, CompressionType type) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("the threshold must not be negative: " + threshold);
+        }
+        this.serializer = serializer;
+        this.threshold = threshold;
+        this.type = type;
+    }
+
+    /**
+     * @param o the value of cache
+     * @return the compressed payload with header, or else the payload of the decorated serializer
+     */
+    @Override
+    public byte[] serialize(Object o) {
+        byte[] raw = serializer.serialize(o);
+        byte[] stored = raw.length >= threshold ? compress(raw) : null;
+        if (stored == null) {
+            stored = raw.length > 0 && raw[0] == MAGIC ? withHeader(raw, STORED) : raw;
+        }
+        rawBytes.add(raw.length);
+        storedBytes.add(stored.length);
+        if (statsCounter != null) {
+            statsCounter.recordSerialized(raw.length, stored.length);
+        }
+        return stored;
+    }
+
+    /**
+     * @param bytes the stored payload
+     * @return the value of cache
+     */
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != MAGIC) {
+            return serializer.deserialize(bytes);
+        }
+        CacheBuffer header = new CacheBuffer(bytes, 1);
+        int id = header.readByte();
+        int length = header.readVarInt();
+        int offset = header.position();
+        byte[] raw;
+        if (id == STORED) {
+            raw = Arrays.copyOfRange(bytes, offset, bytes.length);
+        } else {
+            switch (CompressionType.valueOf(id)) {
+                case GZIP:
+                    raw = ZipUtils.unGzip(Arrays.copyOfRange(bytes, offset, bytes.length));
+                    break;
+                default:
+                    raw = LzfCompressor.decompress(bytes, offset, length);
+            }
+        }
+        if (raw.length != length) {
+            throw new IllegalStateException("the payload decompresses to " + raw.length + " bytes instead of " + length);
+        }
+        return serializer.deserialize(raw);
+    }
+
+    /** get the ratio of raw bytes to stored bytes, such as 4.0 for the payloads stored in a quarter
+     * @return the compression ratio, 1.0 when nothing is serialized
+     */
+    public double getCompressionRatio() {
+        long stored = storedBytes.sum();
+        return stored == 0 ? 1.0d : (double) rawBytes.sum() / stored;
+    }
+
+    public long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    public long getStoredBytes() {
+        return storedBytes.sum();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public CompressionType getType() {
+        return type;
+    }
+
+    /**set the counter to record the compression, such as the one of a {@link StatsCacheManager}
+     * @param statsCounter the counter to record in
+     */
+    public void setStatsCounter(CacheStatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    private byte[] compress(byte[] raw) {
+        CacheBuffer header = new CacheBuffer(16);
+        header.writeByte(MAGIC);
+        header.writeByte(type.getId());
+        header.writeVarInt(raw.length);
+        int headerLength = header.position();
+        byte[] stored;
+        if (type == CompressionType.GZIP) {
+            byte[] gzipped = ZipUtils.gzip(raw);
+            stored = new byte[headerLength + gzipped.length];
+            System.arraycopy(gzipped, 0, stored, headerLength, gzipped.length);
+        } else {
+            byte[] out = new byte[headerLength + LzfCompressor.maxCompressedLength(raw.length)];
+            stored = Arrays.copyOf(out, LzfCompressor.compress(raw, out, headerLength));
+        }
+        if (stored.length >= raw.length) {
+            return null;
+        }
+        System.arraycopy(header.toByteArray(), 0, stored, 0, headerLength);
+        return stored;
+    }
+
+    private static byte[] withHeader(byte[] raw, int id) {
+        CacheBuffer buffer = new CacheBuffer(raw.length + 8);
+        buffer.writeByte(MAGIC);
+        buffer.writeByte(id);
+        buffer.writeVarInt(raw.length);
+        buffer.writeBytes(raw, 0, raw.length);
+        return buffer.toByteArray();
+    }
+}
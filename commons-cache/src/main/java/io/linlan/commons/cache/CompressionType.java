@@ -0,0 +1,65 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the compression type of cache payloads
+ * Filename:CompressionType.java
+ * Desc:the id of type is written in the header of compressed payload, it must never change once the bytes are stored.
+ * LZF is several times faster than GZIP with a lower ratio, GZIP suits the large payloads sent to redis
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:05 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public enum CompressionType {
+
+    /**
+     * the gzip by {@link io.linlan.commons.core.ZipUtils}
+     */
+    GZIP(1),
+
+    /**
+     * the LZF format, a fast LZ77 codec with 8K window
+     */
+    LZF(2);
+
+    private final int id;
+
+    CompressionType(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /** get the compression type of the id in header
+     * @param id the id in header
+     * @return the compression type
+     */
+    public static CompressionType valueOf(int id) {
+        for (CompressionType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("unknown compression type " + id);
+    }
+}
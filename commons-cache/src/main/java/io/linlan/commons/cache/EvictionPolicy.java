@@ -0,0 +1,49 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the eviction policy of bounded cache manager
+ * Filename:EvictionPolicy.java
+ * Desc:the policy to choose the victim when a bounded cache is full
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:12 AM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public enum EvictionPolicy {
+
+    /**
+     * evict the least recently used entry
+     */
+    LRU,
+
+    /**
+     * evict the least frequently used entry among a sample of the least recently used entries,
+     * the frequency is estimated by a count-min sketch which is aged periodically
+     */
+    LFU,
+
+    /**
+     * W-TinyLFU, a small LRU admission window in front of a segmented LRU main space,
+     * a candidate leaving the window is only admitted when it is used more frequently than the victim
+     */
+    TINY_LFU
+
+}
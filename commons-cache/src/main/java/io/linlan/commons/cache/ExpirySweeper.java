@@ -0,0 +1,259 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * the active expiration engine of heap cache manager
+ * Filename:ExpirySweeper.java
+ * Desc:the sweeper keeps the deadline of every cache object in a hierarchical timer wheel,
+ * four levels of 64 buckets, and frees the expired objects when their bucket is reached.
+ * writers only append to a lock free queue, the wheel itself is owned by the sweeper thread,
+ * so scheduling and reclaiming are amortized O(1) and readers are never paused.
+ * a timer keeps only the key, the deadline and a weak reference to its cache object,
+ * so an overwritten or removed object is not held by the wheel until its deadline.
+ * nothing is scheduled while the sweeper is not started or shut down, so the queue does not grow without a sweeper thread,
+ * the objects put meanwhile are removed on read only. one sweeper could be shared by several cache managers
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 10:40 AM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ExpirySweeper {
+
+    /**
+     * the default tick of timer wheel, unit: millisecond
+     */
+    public static final long DEFAULT_TICK = 1000;
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAXIMUM_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tick;
+    private final Timer[][] wheels = new Timer[LEVELS][WHEEL_SIZE];
+    private final Queue<Timer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong reclaimedCount = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong sweepCount = new AtomicLong();
+
+    private long currentTick = -1;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    /**
+     * constructor of ExpirySweeper, with {@link #DEFAULT_TICK}
+     */
+    public ExpirySweeper() {
+        this(DEFAULT_TICK);
+    }
+
+    /** constructor of ExpirySweeper
+     * @param tick the tick of timer wheel, the expired objects are freed at most one tick later
+     */
+    public ExpirySweeper(long tick) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("the tick of sweeper must be positive: " + tick);
+        }
+        this.tick = tick;
+    }
+
+    /** schedule the cache object to be reclaimed when it is expired,
+     * the objects never expire are ignored, and so is everything while the sweeper is not running
+     * @param key the key of cache object
+     * @param value the cache object
+     * @param reclaimer remove the key only when it is still mapped to the cache object
+     */
+    public void schedule(String key, CacheObject value, BiPredicate<String, CacheObject> reclaimer) {
+        if (running && value.getExpire() >= 0) {
+            pending.add(new Timer(key, value, reclaimer));
+        }
+    }
+
+    /**
+     * start the daemon sweeper thread, one sweep for every tick
+     */
+    public synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "cache-expiry-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::sweep, tick, tick, TimeUnit.MILLISECONDS);
+            running = true;
+        }
+    }
+
+    /**
+     * stop the sweeper thread, the objects scheduled before are kept for a later start
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * run one sweep at current time, called by the sweeper thread
+     */
+    public void sweep() {
+        sweep(System.currentTimeMillis());
+    }
+
+    /** move the pending objects into the wheel and reclaim everything expired before the input time
+     * @param now the time in milliseconds
+     */
+    synchronized void sweep(long now) {
+        long target = now / tick;
+        if (currentTick < 0) {
+            currentTick = target;
+        }
+        Timer timer;
+        while ((timer = pending.poll()) != null) {
+            place(timer);
+        }
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            Timer bucket = wheels[0][(int) (currentTick & WHEEL_MASK)];
+            wheels[0][(int) (currentTick & WHEEL_MASK)] = null;
+            while (bucket != null) {
+                Timer next = bucket.next;
+                place(bucket);
+                bucket = next;
+            }
+        }
+        sweepCount.incrementAndGet();
+    }
+
+    /**
+     * bring the timers of upper levels down when the lower level turns around
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            Timer bucket = wheels[level][index];
+            wheels[level][index] = null;
+            while (bucket != null) {
+                Timer next = bucket.next;
+                place(bucket);
+                bucket = next;
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long deadline = (timer.deadline + tick - 1) / tick;
+        if (deadline <= currentTick) {
+            reclaim(timer);
+            return;
+        }
+        long delta = Math.min(deadline - currentTick, MAXIMUM_SPAN - 1);
+        long slot = currentTick + delta;
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((slot >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        timer.next = wheels[level][index];
+        wheels[level][index] = timer;
+    }
+
+    private void reclaim(Timer timer) {
+        CacheObject value = timer.value.get();
+        if (value != null && timer.reclaimer.test(timer.key, value)) {
+            reclaimedCount.incrementAndGet();
+            reclaimedBytes.addAndGet(value.getSize());
+        } else {
+            staleCount.incrementAndGet();
+        }
+    }
+
+    /** get the count of expired objects freed by the sweeper
+     * @return the reclaimed count
+     */
+    public long getReclaimedCount() {
+        return reclaimedCount.get();
+    }
+
+    /** get the serialized bytes of expired objects freed by the sweeper
+     * @return the reclaimed bytes
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /** get the count of timers fired after their key was overwritten or removed, or their object collected
+     * @return the stale count
+     */
+    public long getStaleCount() {
+        return staleCount.get();
+    }
+
+    /** get the count of sweeps run
+     * @return the sweep count
+     */
+    public long getSweepCount() {
+        return sweepCount.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * the deadline of one cache object, linked in a bucket of the wheel,
+     * the cache object is weakly referenced, the live entry of the cache keeps it reachable
+     */
+    private static final class Timer {
+        private final String key;
+        private final long deadline;
+        private final WeakReference<CacheObject> value;
+        private final BiPredicate<String, CacheObject> reclaimer;
+        private Timer next;
+
+        private Timer(String key, CacheObject value, BiPredicate<String, CacheObject> reclaimer) {
+            this.key = key;
+            this.deadline = value.getT1() + value.getExpire();
+            this.value = new WeakReference<>(value);
+            this.reclaimer = reclaimer;
+        }
+    }
+}
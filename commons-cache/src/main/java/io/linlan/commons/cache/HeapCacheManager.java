@@ -15,14 +15,17 @@
  */
 package io.linlan.commons.cache;
 
-import java.util.Date;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * the heap cache manager for project to use
  * Filename:HeapCacheManager.java
- * Desc:the heap cache manager
+ * Desc:the heap cache manager, expired entries are removed when they are read,
+ * or freed in background by an {@link ExpirySweeper} when it is set
  *
  * @author Linlan
  * CreateTime:2020-08-17 6:32 PM
@@ -31,13 +34,23 @@ import java.util.concurrent.ConcurrentMap;
  * @since 1.0
  *
  */
-public class HeapCacheManager<T> implements CacheManager<T> {
+public class HeapCacheManager<T> implements CacheManager<T>, CacheUsage {
 
     /**
      * the cache in ConcurrentMap to support heap
      */
     private ConcurrentMap<String, CacheObject> cache = new ConcurrentHashMap<>();
 
+    /**
+     * the storage mode of value, serialized by default
+     */
+    private StorageMode storageMode = StorageMode.SERIALIZED;
+
+    /**
+     * the active expiration engine, null means expired entries are only removed on read
+     */
+    private ExpirySweeper expirySweeper;
+
     /**
      * @param key    the key for get and use
      * @param data   the value of cache
@@ -45,7 +58,11 @@ public class HeapCacheManager<T> implements CacheManager<T> {
      */
     @Override
     public void put(String key, T data, long expire) {
-        cache.put(key, new CacheObject(new Date().getTime(), expire, data));
+        CacheObject o = new CacheObject(System.currentTimeMillis(), expire, data, storageMode);
+        cache.put(key, o);
+        if (expirySweeper != null) {
+            expirySweeper.schedule(key, o, cache::remove);
+        }
     }
 
     /**
@@ -55,11 +72,14 @@ public class HeapCacheManager<T> implements CacheManager<T> {
     @Override
     public T get(String key) {
         CacheObject o = cache.get(key);
-        if (o == null || new Date().getTime() >= o.getT1() + o.getExpire())
+        if (o == null) {
+            return null;
+        }
+        if (o.isExpired(System.currentTimeMillis())) {
+            cache.remove(key, o);
             return null;
-        else {
-            return (T) o.getD();
         }
+        return (T) o.getD();
     }
 
     /**
@@ -70,4 +90,93 @@ public class HeapCacheManager<T> implements CacheManager<T> {
         cache.remove(key);
     }
 
+    /** get the caches by input keys in a single pass with one clock read
+     * @param keys the input keys
+     * @return the map of key and value in the order of keys, the missed keys are absent
+     */
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            CacheObject o = cache.get(key);
+            if (o == null) {
+                continue;
+            }
+            if (o.isExpired(now)) {
+                cache.remove(key, o);
+            } else {
+                result.put(key, (T) o.getD());
+            }
+        }
+        return result;
+    }
+
+    /** put all the data in a single pass, all the entries share one put time
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, ? extends T> entry : data.entrySet()) {
+            CacheObject o = new CacheObject(now, expire, entry.getValue(), storageMode);
+            cache.put(entry.getKey(), o);
+            if (expirySweeper != null) {
+                expirySweeper.schedule(entry.getKey(), o, cache::remove);
+            }
+        }
+    }
+
+    /** get the entries of cache, expired entries not yet removed are included
+     * @return the entries of cache
+     */
+    @Override
+    public long size() {
+        return cache.size();
+    }
+
+    /** get the serialized bytes of the values in cache by a scan of the entries
+     * @return the serialized bytes
+     */
+    @Override
+    public long getByteSize() {
+        long bytes = 0;
+        for (CacheObject o : cache.values()) {
+            bytes += o.getSize();
+        }
+        return bytes;
+    }
+
+    /** the heap cache manager is unbounded, nothing is evicted
+     * @return 0
+     */
+    @Override
+    public long getEvictionCount() {
+        return 0;
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return true if the key is present and not expired
+     */
+    @Override
+    public boolean containsKey(String key) {
+        CacheObject o = cache.get(key);
+        return o != null && !o.isExpired(System.currentTimeMillis());
+    }
+
+    /**set the storage mode of heap cache manager, the entries put afterwards are kept in this mode
+     * @param storageMode the storage mode of value
+     */
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
+
+    /**set the expiry sweeper of heap cache manager, the entries put afterwards are freed by it
+     * @param expirySweeper the started expiry sweeper
+     */
+    public void setExpirySweeper(ExpirySweeper expirySweeper) {
+        this.expirySweeper = expirySweeper;
+    }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * the hessian serializer of cache values
+ * Filename:HessianSerializer.java
+ * Desc:the hessian2 message format, the same bytes as {@link CacheObject} wrote before the serializer was pluggable.
+ * the output stream and the hessian streams are reused for each thread instead of created for each value
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 6:35 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class HessianSerializer implements CacheSerializer {
+
+    /**
+     * the buffers beyond this capacity are dropped after use, not kept by the thread
+     */
+    private static final int MAXIMUM_RETAINED = 1 << 20;
+
+    private static final ThreadLocal<Streams> STREAMS = ThreadLocal.withInitial(Streams::new);
+
+    /**
+     * @param o the value of cache
+     * @return the hessian bytes
+     */
+    @Override
+    public byte[] serialize(Object o) {
+        Streams streams = STREAMS.get();
+        if (streams.busy) {
+            streams = new Streams();
+        }
+        streams.busy = true;
+        try {
+            streams.os.reset();
+            streams.ho.init(streams.os);
+            streams.ho.startMessage();
+            streams.ho.writeObject(o);
+            streams.ho.completeMessage();
+            streams.ho.flush();
+            return streams.os.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            streams.busy = false;
+            if (streams.os.size() > MAXIMUM_RETAINED) {
+                STREAMS.remove();
+            }
+        }
+    }
+
+    /**
+     * @param bytes the hessian bytes
+     * @return the value of cache
+     */
+    @Override
+    public Object deserialize(byte[] bytes) {
+        Hessian2Input hi = new Hessian2Input(new ByteArrayInputStream(bytes));
+        try {
+            hi.startMessage();
+            Object o = hi.readObject();
+            hi.completeMessage();
+            return o;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class Streams {
+        private final ByteArrayOutputStream os = new ByteArrayOutputStream(CacheBuffer.DEFAULT_CAPACITY);
+        private final Hessian2Output ho = new Hessian2Output();
+        private boolean busy;
+    }
+}
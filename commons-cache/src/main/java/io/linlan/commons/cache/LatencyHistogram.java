@@ -0,0 +1,96 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the lock free latency histogram of cache operations
+ * Filename:LatencyHistogram.java
+ * Desc:the latencies in nanoseconds are counted in 64 power-of-two buckets of striped counters,
+ * a percentile is reported as the upper bound of its bucket, so it is accurate within a factor of two
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:25 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /** record one latency
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(1, nanos);
+        buckets[63 - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        total.add(value);
+    }
+
+    /** get the count of recorded latencies
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** get the mean of recorded latencies
+     * @return the mean in nanoseconds, 0 when nothing is recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /** get the estimated percentile of recorded latencies
+     * @param quantile the quantile between 0 and 1, such as 0.99
+     * @return the upper bound of the bucket in nanoseconds, 0 when nothing is recorded
+     */
+    public long getPercentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,416 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import io.linlan.commons.core.abs.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * the loading cache manager to decorate any cache manager
+ * Filename:LoadingCacheManager.java
+ * Desc:on a miss of {@link #get(String, Function, long)} the loader runs only once per key,
+ * the concurrent callers of the same key wait on the same future instead of loading again.
+ * with refresh-ahead, an entry read after the refresh ratio of its expire time is reloaded
+ * in background while the current value is still served. with the probabilistic early expiration of XFetch,
+ * the time of each load is kept in nanoseconds as the delta of entry and an entry is reloaded at a random time before it expires,
+ * earlier for the entries slow to load, so the entries put at the same time are not reloaded at the same time.
+ * the expire jitter shortens each expire time by a random part to spread the expiry as well.
+ * works over heap, redis or any cache manager, the refresh-ahead only knows the entries put through this manager on this node.
+ * the write times of the entries never expire are not kept, the others are bounded by the maximum writes,
+ * the oldest are dropped first, so the keys evicted by the delegate are not kept forever
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 4:30 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class LoadingCacheManager<T> implements CacheManager<T> {
+
+    /**
+     * the default refresh ratio, an entry is reloaded after 80% of its expire time
+     */
+    public static final double DEFAULT_REFRESH_RATIO = 0.8d;
+
+    /**
+     * the default maximum write times kept for refresh-ahead
+     */
+    public static final int DEFAULT_MAXIMUM_WRITES = 1 << 16;
+
+    /**
+     * the minimum write times kept before a prune
+     */
+    private static final int PRUNE_INTERVAL = 1024;
+
+    /**
+     * the delta of entry is in nanoseconds, the expire time in milliseconds
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    /**
+     * the cache manager to be decorated
+     */
+    private final CacheManager<T> delegate;
+
+    /**
+     * the loads in flight, one future for each key
+     */
+    private final ConcurrentMap<String, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * the put time and expire time of entries put through this manager, without value
+     */
+    private final ConcurrentMap<String, CacheObject> writes = new ConcurrentHashMap<>();
+
+    /**
+     * the size of write times to start the next prune, doubled after each prune up to the maximum writes
+     */
+    private final AtomicInteger pruneThreshold = new AtomicInteger(PRUNE_INTERVAL);
+
+    /**
+     * the maximum write times kept, an entry without write time is served but not refreshed ahead
+     */
+    private int maximumWrites = DEFAULT_MAXIMUM_WRITES;
+
+    /**
+     * the refresh ratio of expire time, 0 means refresh-ahead is disabled
+     */
+    private double refreshRatio = DEFAULT_REFRESH_RATIO;
+
+    /**
+     * the beta of XFetch, the larger the earlier to reload, 0 means the probabilistic early expiration is disabled
+     */
+    private double earlyExpirationBeta;
+
+    /**
+     * the maximum ratio cut from the expire time at random, 0 means no jitter
+     */
+    private double expireJitter;
+
+    /**
+     * the executor of background refresh
+     */
+    private Executor executor = ThreadPool.getExecutor();
+
+    /**
+     * the counter to record the load times, null means the loads are not recorded
+     */
+    private CacheStatsCounter statsCounter;
+
+    /** constructor of LoadingCacheManager
+     * @param delegate the cache manager to be decorated
+     */
+    public LoadingCacheManager(CacheManager<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    /** get the cache by input key, load it by the loader on a miss, the loader runs once for concurrent misses
+     * @param key the input key, the unique key
+     * @param loader the loader to compute the value, null result is not cached
+     * @param expire the expire time of loaded value
+     * @return T, the value of cache
+     */
+    public T get(String key, Function<String, ? extends T> loader, long expire) {
+        T data = delegate.get(key);
+        if (data != null) {
+            if (needsRefresh(key)) {
+                refresh(key, loader, expire);
+            }
+            return data;
+        }
+        writes.remove(key);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return join(running);
+        }
+        try {
+            data = delegate.get(key);
+            if (data == null) {
+                long start = System.nanoTime();
+                data = load(key, loader);
+                if (data != null) {
+                    store(key, data, expire, System.nanoTime() - start);
+                }
+            }
+            future.complete(data);
+            return data;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /** reload the cache by the loader in background, nothing happens when a load of the key is in flight
+     * @param key the input key, the unique key
+     * @param loader the loader to compute the value, null result is not cached
+     * @param expire the expire time of loaded value
+     * @return the future of loaded value
+     */
+    public CompletableFuture<T> refresh(String key, Function<String, ? extends T> loader, long expire) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long start = System.nanoTime();
+                    T data = load(key, loader);
+                    if (data != null) {
+                        store(key, data, expire, System.nanoTime() - start);
+                    }
+                    future.complete(data);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        CacheObject previous = writes.get(key);
+        store(key, data, expire, previous == null ? 0 : previous.getDelta());
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        return delegate.get(key);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+        writes.remove(key);
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        return delegate.getAll(keys);
+    }
+
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        long jittered = jitter(expire);
+        delegate.putAll(data, jittered);
+        long now = System.currentTimeMillis();
+        for (String key : data.keySet()) {
+            CacheObject previous = writes.get(key);
+            recordWrite(key, now, jittered, previous == null ? 0 : previous.getDelta());
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        delegate.removeAll(keys);
+        for (String key : keys) {
+            writes.remove(key);
+        }
+    }
+
+    public CacheManager<T> getDelegate() {
+        return delegate;
+    }
+
+    /**set the refresh ratio of expire time, an entry read after this ratio is reloaded in background
+     * @param refreshRatio the ratio between 0 and 1, 0 to disable refresh-ahead
+     */
+    public void setRefreshRatio(double refreshRatio) {
+        if (refreshRatio < 0 || refreshRatio >= 1) {
+            throw new IllegalArgumentException("the refresh ratio must be in [0, 1): " + refreshRatio);
+        }
+        this.refreshRatio = refreshRatio;
+    }
+
+    /**set the beta of the probabilistic early expiration of XFetch, an entry is reloaded in background when
+     * now - delta * beta * ln(random) reaches its expiry, 1.0 is the usual beta, use it with a refresh ratio of 0
+     * @param earlyExpirationBeta the beta not negative, 0 to disable
+     */
+    public void setEarlyExpirationBeta(double earlyExpirationBeta) {
+        if (earlyExpirationBeta < 0) {
+            throw new IllegalArgumentException("the early expiration beta must not be negative: " + earlyExpirationBeta);
+        }
+        this.earlyExpirationBeta = earlyExpirationBeta;
+    }
+
+    /**set the maximum ratio cut from the expire time at random, such as 0.1 for an expire time 0 to 10% shorter
+     * @param expireJitter the ratio between 0 and 1, 0 to disable
+     */
+    public void setExpireJitter(double expireJitter) {
+        if (expireJitter < 0 || expireJitter >= 1) {
+            throw new IllegalArgumentException("the expire jitter must be in [0, 1): " + expireJitter);
+        }
+        this.expireJitter = expireJitter;
+    }
+
+    /**set the maximum write times kept for refresh-ahead, the oldest are dropped beyond it
+     * @param maximumWrites the maximum writes, positive
+     */
+    public void setMaximumWrites(int maximumWrites) {
+        if (maximumWrites <= 0) {
+            throw new IllegalArgumentException("the maximum writes must be positive: " + maximumWrites);
+        }
+        this.maximumWrites = maximumWrites;
+        pruneThreshold.set(Math.min(PRUNE_INTERVAL, maximumWrites));
+    }
+
+    /**set the executor of background refresh
+     * @param executor the executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**set the counter to record the load times, such as the one of a {@link StatsCacheManager}
+     * @param statsCounter the counter to record in
+     */
+    public void setStatsCounter(CacheStatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    private T load(String key, Function<String, ? extends T> loader) {
+        if (statsCounter == null) {
+            return loader.apply(key);
+        }
+        long start = System.nanoTime();
+        try {
+            T data = loader.apply(key);
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            return data;
+        } catch (RuntimeException | Error e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private void store(String key, T data, long expire, long delta) {
+        long jittered = jitter(expire);
+        delegate.put(key, data, jittered);
+        recordWrite(key, System.currentTimeMillis(), jittered, delta);
+    }
+
+    private long jitter(long expire) {
+        if (expireJitter <= 0 || expire <= 0) {
+            return expire;
+        }
+        return expire - (long) (expire * expireJitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private boolean needsRefresh(String key) {
+        if (refreshRatio <= 0 && earlyExpirationBeta <= 0) {
+            return false;
+        }
+        CacheObject write = writes.get(key);
+        if (write == null || write.getExpire() < 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (refreshRatio > 0 && now >= write.getT1() + (long) (write.getExpire() * refreshRatio)) {
+            return true;
+        }
+        if (earlyExpirationBeta > 0 && write.getDelta() > 0) {
+            // the delta is kept in nanoseconds, so a load faster than 1 ms still opens the early expiration window
+            double gap = -write.getDelta() / NANOS_PER_MILLI * earlyExpirationBeta * Math.log(1.0d - ThreadLocalRandom.current().nextDouble());
+            return now + gap >= write.getT1() + write.getExpire();
+        }
+        return false;
+    }
+
+    private void recordWrite(String key, long now, long expire, long delta) {
+        if (expire < 0) {
+            writes.remove(key);
+            return;
+        }
+        CacheObject write = new CacheObject(now, expire, null);
+        write.setDelta(delta);
+        writes.put(key, write);
+        if (writes.size() > pruneThreshold.get()) {
+            prune(now);
+        }
+    }
+
+    /**
+     * drop the expired write times, then the oldest ones down to 3/4 of the maximum writes,
+     * the threshold of next prune is twice the size left, so the prunes are amortized
+     */
+    private synchronized void prune(long now) {
+        if (writes.size() <= pruneThreshold.get()) {
+            return;
+        }
+        writes.values().removeIf(w -> w.isExpired(now));
+        int excess = writes.size() - maximumWrites / 4 * 3;
+        if (writes.size() > maximumWrites && excess > 0) {
+            List<Map.Entry<String, CacheObject>> oldest = new ArrayList<>(writes.entrySet());
+            oldest.sort(Comparator.comparingLong(e -> e.getValue().getT1()));
+            for (int i = 0; i < excess && i < oldest.size(); i++) {
+                writes.remove(oldest.get(i).getKey(), oldest.get(i).getValue());
+            }
+        }
+        pruneThreshold.set(Math.min(maximumWrites, Math.max(PRUNE_INTERVAL, writes.size() * 2)));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the LZF compressor of cache payloads
+ * Filename:LzfCompressor.java
+ * Desc:the LZF format of liblzf, a control byte below 32 is followed by up to 32 literals,
+ * else it is a back reference of 3 to 264 bytes within the last 8K. the hash table of each thread is reused
+ * without clearing, a stale entry is only a candidate and the bytes are compared before a match is taken
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:10 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+final class LzfCompressor {
+
+    private static final int HASH_LOG = 14;
+    private static final int MAX_LITERAL = 32;
+    private static final int MAX_OFFSET = 1 << 13;
+    private static final int MAX_MATCH = 264;
+
+    private static final ThreadLocal<int[]> HASH_TABLES = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+    private LzfCompressor() {
+    }
+
+    /** get the maximum length of compressed bytes
+     * @param length the length of input
+     * @return the maximum length of output
+     */
+    static int maxCompressedLength(int length) {
+        return length + (length >>> 5) + 2;
+    }
+
+    /** compress the input into the output
+     * @param in the input bytes
+     * @param out the output bytes, at least {@link #maxCompressedLength(int)} from the offset
+     * @param outOffset the offset of output
+     * @return the end offset of compressed bytes in output
+     */
+    static int compress(byte[] in, byte[] out, int outOffset) {
+        int[] table = HASH_TABLES.get();
+        int length = in.length;
+        int ip = 0;
+        int op = outOffset + 1;
+        int literals = 0;
+        while (ip < length - 2) {
+            int h = ((in[ip] & 0xFF) << 16) | ((in[ip + 1] & 0xFF) << 8) | (in[ip + 2] & 0xFF);
+            int slot = (h * 0x9E3779B1) >>> (32 - HASH_LOG);
+            int ref = table[slot];
+            table[slot] = ip;
+            int offset = ip - ref - 1;
+            if (ref < ip && offset < MAX_OFFSET
+                    && in[ref] == in[ip] && in[ref + 1] == in[ip + 1] && in[ref + 2] == in[ip + 2]) {
+                if (literals == 0) {
+                    op--;
+                } else {
+                    out[op - literals - 1] = (byte) (literals - 1);
+                    literals = 0;
+                }
+                int match = 3;
+                int maxMatch = Math.min(length - ip, MAX_MATCH);
+                while (match < maxMatch && in[ref + match] == in[ip + match]) {
+                    match++;
+                }
+                int len = match - 2;
+                if (len < 7) {
+                    out[op++] = (byte) ((offset >>> 8) + (len << 5));
+                } else {
+                    out[op++] = (byte) ((offset >>> 8) + (7 << 5));
+                    out[op++] = (byte) (len - 7);
+                }
+                out[op++] = (byte) offset;
+                op++;
+                ip += match;
+                continue;
+            }
+            out[op++] = in[ip++];
+            if (++literals == MAX_LITERAL) {
+                out[op - literals - 1] = (byte) (literals - 1);
+                literals = 0;
+                op++;
+            }
+        }
+        while (ip < length) {
+            out[op++] = in[ip++];
+            if (++literals == MAX_LITERAL) {
+                out[op - literals - 1] = (byte) (literals - 1);
+                literals = 0;
+                op++;
+            }
+        }
+        if (literals == 0) {
+            op--;
+        } else {
+            out[op - literals - 1] = (byte) (literals - 1);
+        }
+        return op;
+    }
+
+    /** decompress the input from the offset
+     * @param in the compressed bytes
+     * @param inOffset the offset of compressed bytes
+     * @param length the length of decompressed bytes
+     * @return the decompressed bytes
+     */
+    static byte[] decompress(byte[] in, int inOffset, int length) {
+        byte[] out = new byte[length];
+        int ip = inOffset;
+        int op = 0;
+        try {
+            while (ip < in.length) {
+                int ctrl = in[ip++] & 0xFF;
+                if (ctrl < MAX_LITERAL) {
+                    int run = ctrl + 1;
+                    System.arraycopy(in, ip, out, op, run);
+                    ip += run;
+                    op += run;
+                } else {
+                    int len = ctrl >>> 5;
+                    if (len == 7) {
+                        len += in[ip++] & 0xFF;
+                    }
+                    len += 2;
+                    int ref = op - ((ctrl & 0x1F) << 8) - (in[ip++] & 0xFF) - 1;
+                    if (ref < 0) {
+                        throw new IllegalStateException("malformed LZF reference at " + ip);
+                    }
+                    if (op + len > length) {
+                        throw new IllegalStateException("the LZF bytes are beyond the length " + length);
+                    }
+                    for (int i = 0; i < len; i++) {
+                        out[op++] = out[ref++];
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalStateException("malformed LZF bytes", e);
+        }
+        if (op != length) {
+            throw new IllegalStateException("the LZF bytes decompress to " + op + " bytes instead of " + length);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,553 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * the off-heap cache manager for project to use
+ * Filename:OffHeapCacheManager.java
+ * Desc:the cache manager keeps the serialized values in direct memory, so the size of cache
+ * does not grow the old generation. the memory is split into segments with their own lock,
+ * each segment allocates pages of direct {@link ByteBuffer} lazily and carves every page into
+ * the chunks of one size class, the size classes grow by 1.25 times from 64 bytes up to the page size.
+ * freed chunks go back to the free list of their class, when a class is full its least recently
+ * used entry is evicted, and when a class owns no page at all it steals one page from the largest class.
+ * only the small index entries live on heap
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 1:10 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class OffHeapCacheManager<T> implements CacheManager<T>, CacheUsage {
+
+    /**
+     * the default page size of slab, unit: byte, 1M
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    /**
+     * the default segments, the real segments are limited by the pages of capacity
+     */
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private static final int MINIMUM_CHUNK = 64;
+    private static final double GROWTH_FACTOR = 1.25d;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int pageSize;
+    private final long capacity;
+
+    /** constructor of OffHeapCacheManager, with {@link #DEFAULT_PAGE_SIZE} and {@link #DEFAULT_SEGMENTS}
+     * @param capacity the maximum direct memory of cache, unit: byte
+     */
+    public OffHeapCacheManager(long capacity) {
+        this(capacity, DEFAULT_PAGE_SIZE, DEFAULT_SEGMENTS);
+    }
+
+    /** constructor of OffHeapCacheManager
+     * @param capacity the maximum direct memory of cache, unit: byte
+     * @param pageSize the page size of slab, also the maximum serialized size of one value
+     * @param segments the expected segments, rounded down to a power of two
+     */
+    public OffHeapCacheManager(long capacity, int pageSize, int segments) {
+        if (pageSize < MINIMUM_CHUNK) {
+            throw new IllegalArgumentException("the page size of cache is too small: " + pageSize);
+        }
+        if (capacity < pageSize) {
+            throw new IllegalArgumentException("the capacity of cache must hold one page at least: " + capacity);
+        }
+        long totalPages = capacity / pageSize;
+        int count = Integer.highestOneBit((int) Math.max(1, Math.min(Math.min(segments, totalPages), 1 << 16)));
+        this.capacity = capacity;
+        this.pageSize = pageSize;
+        int[] chunkSizes = chunkSizes(pageSize);
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            long pages = totalPages / count + (i < totalPages % count ? 1 : 0);
+            this.segments[i] = new Segment((int) Math.min(pages, Integer.MAX_VALUE), pageSize, chunkSizes);
+        }
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        Segment segment = segmentFor(key);
+        if (data == null) {
+            segment.remove(key);
+            return;
+        }
+        byte[] bytes = CacheObject.serialize(data);
+        segment.put(key, bytes, System.currentTimeMillis(), expire);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        byte[] bytes = segmentFor(key).get(key, System.currentTimeMillis());
+        return bytes == null ? null : (T) CacheObject.deserialize(bytes);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * remove all the entries, the allocated pages are kept for reuse
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /** get the entries of cache
+     * @return the entries of cache
+     */
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.read(s -> (long) s.index.size());
+        }
+        return size;
+    }
+
+    /** get the serialized bytes of all the values
+     * @return the used bytes
+     */
+    public long getUsedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.read(s -> s.usedBytes);
+        }
+        return used;
+    }
+
+    @Override
+    public long getByteSize() {
+        return getUsedBytes();
+    }
+
+    /** get the direct memory allocated by the pages
+     * @return the allocated bytes
+     */
+    public long getAllocatedBytes() {
+        long pages = 0;
+        for (Segment segment : segments) {
+            pages += segment.read(s -> (long) s.allocatedPages);
+        }
+        return pages * pageSize;
+    }
+
+    /** get the count of entries evicted to make room
+     * @return the eviction count
+     */
+    @Override
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.read(s -> s.evictionCount);
+        }
+        return evictions;
+    }
+
+    /** check the key by the index of segment, the value is not copied and the LRU order is kept
+     * @param key the input key, the unique key
+     * @return true if the key is present and not expired
+     */
+    @Override
+    public boolean containsKey(String key) {
+        long now = System.currentTimeMillis();
+        return segmentFor(key).read(s -> {
+            Entry entry = s.index.get(key);
+            return entry != null && !(entry.expire >= 0 && now >= entry.t1 + entry.expire) ? 1 : 0;
+        }) == 1;
+    }
+
+    /** get the count of puts rejected, the value is larger than a page or no chunk could be freed
+     * @return the rejected count
+     */
+    public long getRejectedCount() {
+        long rejections = 0;
+        for (Segment segment : segments) {
+            rejections += segment.read(s -> s.rejectedCount);
+        }
+        return rejections;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & segmentMask];
+    }
+
+    private static int[] chunkSizes(int pageSize) {
+        List<Integer> sizes = new ArrayList<>();
+        int size = MINIMUM_CHUNK;
+        while (size < pageSize) {
+            sizes.add(size);
+            size = (int) Math.min(pageSize, ((long) (size * GROWTH_FACTOR) + 7) & ~7L);
+        }
+        sizes.add(pageSize);
+        int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sizes.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * the segment of cache, the index, pages, free lists and LRU lists are guarded by the lock
+     */
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int pageSize;
+        private final int[] chunkSizes;
+        private final Map<String, Entry> index = new HashMap<>();
+        private final ByteBuffer[] pages;
+        private final int[] pageClasses;
+        private final int[] classPages;
+        private final ChunkStack[] freeLists;
+        private final EntryList[] lruLists;
+        private int allocatedPages;
+        private long usedBytes;
+        private long evictionCount;
+        private long rejectedCount;
+
+        private Segment(int maximumPages, int pageSize, int[] chunkSizes) {
+            this.pageSize = pageSize;
+            this.chunkSizes = chunkSizes;
+            this.pages = new ByteBuffer[maximumPages];
+            this.pageClasses = new int[maximumPages];
+            this.classPages = new int[chunkSizes.length];
+            this.freeLists = new ChunkStack[chunkSizes.length];
+            this.lruLists = new EntryList[chunkSizes.length];
+            for (int i = 0; i < chunkSizes.length; i++) {
+                freeLists[i] = new ChunkStack();
+                lruLists[i] = new EntryList();
+            }
+        }
+
+        private void put(String key, byte[] bytes, long now, long expire) {
+            lock.lock();
+            try {
+                Entry old = index.remove(key);
+                if (old != null) {
+                    release(old);
+                }
+                if (bytes.length > pageSize) {
+                    rejectedCount++;
+                    return;
+                }
+                int sizeClass = sizeClassOf(bytes.length);
+                long chunk = allocate(sizeClass);
+                if (chunk < 0) {
+                    rejectedCount++;
+                    return;
+                }
+                Entry entry = new Entry(key, chunk, bytes.length, sizeClass, now, expire);
+                ByteBuffer page = pages[pageOf(chunk)];
+                page.position(offsetOf(chunk));
+                page.put(bytes);
+                index.put(key, entry);
+                lruLists[sizeClass].addLast(entry);
+                usedBytes += bytes.length;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private byte[] get(String key, long now) {
+            lock.lock();
+            try {
+                Entry entry = index.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expire >= 0 && now >= entry.t1 + entry.expire) {
+                    index.remove(key);
+                    release(entry);
+                    return null;
+                }
+                byte[] bytes = new byte[entry.length];
+                ByteBuffer page = pages[pageOf(entry.chunk)];
+                page.position(offsetOf(entry.chunk));
+                page.get(bytes);
+                lruLists[entry.sizeClass].moveToLast(entry);
+                return bytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(String key) {
+            lock.lock();
+            try {
+                Entry entry = index.remove(key);
+                if (entry != null) {
+                    release(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int sizeClassOf(int length) {
+            int index = Arrays.binarySearch(chunkSizes, length);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                for (Entry entry : new ArrayList<>(index.values())) {
+                    release(entry);
+                }
+                index.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long read(ToLongFunction<Segment> reader) {
+            lock.lock();
+            try {
+                return reader.applyAsLong(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** allocate a chunk of the size class, from the free list, a new page,
+         * the LRU entry of the class or a page stolen from the largest class in order
+         * @param sizeClass the size class
+         * @return the chunk address, -1 if nothing could be freed
+         */
+        private long allocate(int sizeClass) {
+            ChunkStack free = freeLists[sizeClass];
+            if (!free.isEmpty()) {
+                return free.pop();
+            }
+            if (allocatedPages < pages.length) {
+                int page = allocatedPages++;
+                pages[page] = ByteBuffer.allocateDirect(pageSize);
+                carve(page, sizeClass);
+                return free.pop();
+            }
+            Entry victim = lruLists[sizeClass].first();
+            if (victim != null) {
+                evict(victim);
+                return free.pop();
+            }
+            if (steal(sizeClass)) {
+                return free.pop();
+            }
+            return -1;
+        }
+
+        private void carve(int page, int sizeClass) {
+            pageClasses[page] = sizeClass;
+            classPages[sizeClass]++;
+            int chunkSize = chunkSizes[sizeClass];
+            ChunkStack free = freeLists[sizeClass];
+            for (int offset = (pageSize / chunkSize - 1) * chunkSize; offset >= 0; offset -= chunkSize) {
+                free.push(((long) page << 32) | offset);
+            }
+        }
+
+        /** move one page of the class with most pages to the input size class
+         * @param sizeClass the size class without any page
+         * @return true if a page is moved
+         */
+        private boolean steal(int sizeClass) {
+            int donor = -1;
+            for (int i = 0; i < classPages.length; i++) {
+                if (i != sizeClass && classPages[i] > 0 && (donor < 0 || classPages[i] > classPages[donor])) {
+                    donor = i;
+                }
+            }
+            if (donor < 0) {
+                return false;
+            }
+            Entry head = lruLists[donor].first();
+            int page = head != null ? pageOf(head.chunk) : pageOf(freeLists[donor].peek());
+            for (Entry entry = lruLists[donor].first(); entry != null; ) {
+                Entry next = entry.next;
+                if (pageOf(entry.chunk) == page) {
+                    evict(entry);
+                }
+                entry = next;
+            }
+            freeLists[donor].removePage(page);
+            classPages[donor]--;
+            carve(page, sizeClass);
+            return true;
+        }
+
+        private void evict(Entry entry) {
+            index.remove(entry.key);
+            release(entry);
+            evictionCount++;
+        }
+
+        private void release(Entry entry) {
+            lruLists[entry.sizeClass].remove(entry);
+            freeLists[entry.sizeClass].push(entry.chunk);
+            usedBytes -= entry.length;
+        }
+    }
+
+    private static int pageOf(long chunk) {
+        return (int) (chunk >>> 32);
+    }
+
+    private static int offsetOf(long chunk) {
+        return (int) chunk;
+    }
+
+    /**
+     * the index entry of an off-heap value
+     */
+    private static final class Entry {
+        private final String key;
+        private final long chunk;
+        private final int length;
+        private final int sizeClass;
+        private final long t1;
+        private final long expire;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(String key, long chunk, int length, int sizeClass, long t1, long expire) {
+            this.key = key;
+            this.chunk = chunk;
+            this.length = length;
+            this.sizeClass = sizeClass;
+            this.t1 = t1;
+            this.expire = expire;
+        }
+    }
+
+    /**
+     * the access ordered list of one size class, the first is the least recently used entry
+     */
+    private static final class EntryList {
+        private Entry head;
+        private Entry tail;
+
+        private Entry first() {
+            return head;
+        }
+
+        private void addLast(Entry entry) {
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        private void moveToLast(Entry entry) {
+            if (entry != tail) {
+                remove(entry);
+                addLast(entry);
+            }
+        }
+    }
+
+    /**
+     * the free list of chunk addresses, kept in a primitive array to avoid garbage
+     */
+    private static final class ChunkStack {
+        private long[] chunks = new long[16];
+        private int size;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(long chunk) {
+            if (size == chunks.length) {
+                chunks = Arrays.copyOf(chunks, size << 1);
+            }
+            chunks[size++] = chunk;
+        }
+
+        private long pop() {
+            return chunks[--size];
+        }
+
+        private long peek() {
+            return chunks[size - 1];
+        }
+
+        private void removePage(int page) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (pageOf(chunks[i]) != page) {
+                    chunks[kept++] = chunks[i];
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,577 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * the persistent cache manager for project to use
+ * Filename:PersistentCacheManager.java
+ * Desc:the cache manager appends the serialized values to memory-mapped segment files,
+ * a restarted JVM reopens the directory, rebuilds the index by scanning the record headers
+ * and serves the warm entries at once. every record is protected by a CRC32, a torn record
+ * at the end of log is ignored. a removed key is logged as a tombstone so it does not come back.
+ * when a new segment is opened, the sealed segments with less than half live bytes are compacted
+ * by copying their live records forward, and the oldest segment is dropped when the disk limit is reached.
+ * reads share a read lock, writes and compaction hold the write lock
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 2:20 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class PersistentCacheManager<T> implements CacheManager<T>, CacheUsage, Closeable {
+
+    /**
+     * the default size of one segment file, unit: byte, 64M
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * the default maximum disk usage of cache, unit: byte, 1G
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 1024L * 1024 * 1024;
+
+    /**
+     * crc, key length, value length, t1, expire
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8;
+    private static final int TOMBSTONE = -1;
+    private static final double COMPACT_LIVE_RATIO = 0.5d;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("cache-(\\d{8})\\.seg");
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maximumSegments;
+    private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<>();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment active;
+    private boolean compacting;
+    private long compactionCount;
+    private long evictionCount;
+
+    /** constructor of PersistentCacheManager, with {@link #DEFAULT_SEGMENT_SIZE} and {@link #DEFAULT_MAXIMUM_BYTES}
+     * @param directory the directory of segment files, created if absent
+     */
+    public PersistentCacheManager(File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAXIMUM_BYTES);
+    }
+
+    /** constructor of PersistentCacheManager, reopen the segment files in the directory
+     * @param directory the directory of segment files, created if absent
+     * @param segmentSize the size of one segment file, also the maximum size of one record
+     * @param maximumBytes the maximum disk usage of cache, two segments at least
+     */
+    public PersistentCacheManager(File directory, int segmentSize, long maximumBytes) {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("the segment size of cache is too small: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("the directory of cache could not be created: " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maximumSegments = (int) Math.max(2, Math.min(maximumBytes / segmentSize, Integer.MAX_VALUE));
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        if (data == null) {
+            remove(key);
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] value = CacheObject.serialize(data);
+        if (HEADER_SIZE + keyBytes.length + value.length > segmentSize) {
+            remove(key);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Location location = append(keyBytes, value, System.currentTimeMillis(), expire);
+            release(index.put(key, location));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        byte[] value;
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            if (location == null || location.isExpired(System.currentTimeMillis())) {
+                return null;
+            }
+            value = new byte[location.valueLength];
+            ByteBuffer buffer = location.segment.buffer.duplicate();
+            buffer.position(location.valueOffset());
+            buffer.get(value);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return (T) CacheObject.deserialize(value);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Location location = index.remove(key);
+            if (location != null) {
+                release(location);
+                append(key.getBytes(StandardCharsets.UTF_8), null, System.currentTimeMillis(), 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * flush the dirty pages of all the segments to disk
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * flush and close the segment files, the cache could not be used afterwards
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                closeQuietly(segment);
+            }
+            segments.clear();
+            index.clear();
+            active = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * compact every sealed segment with less than half live bytes
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactSealed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** get the entries of cache, expired entries not yet compacted are included
+     * @return the entries of cache
+     */
+    @Override
+    public long size() {
+        return index.size();
+    }
+
+    /** get the bytes of the live records in segment files
+     * @return the live bytes
+     */
+    @Override
+    public long getByteSize() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Segment segment : segments.values()) {
+                bytes += segment.liveBytes;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** get the count of segment files
+     * @return the segment count
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** get the count of compacted segments
+     * @return the compaction count
+     */
+    public long getCompactionCount() {
+        lock.readLock().lock();
+        try {
+            return compactionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** get the count of entries dropped with the oldest segment
+     * @return the eviction count
+     */
+    @Override
+    public long getEvictionCount() {
+        lock.readLock().lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** check the key by the index, the record is not read
+     * @param key the input key, the unique key
+     * @return true if the key is present and not expired
+     */
+    @Override
+    public boolean containsKey(String key) {
+        Location location = index.get(key);
+        return location != null && !location.isExpired(System.currentTimeMillis());
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * open the segment files in id order and replay their records into the index
+     */
+    private void load() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    int id = Integer.parseInt(matcher.group(1));
+                    segments.put(id, open(id));
+                }
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments.values()) {
+            segment.position = scan(segment, (offset, key, keyLength, valueLength, t1, expire) -> {
+                if (valueLength == TOMBSTONE) {
+                    release(index.remove(key));
+                    return;
+                }
+                Location location = new Location(segment, offset, keyLength, valueLength, t1, expire);
+                if (location.isExpired(now)) {
+                    release(index.remove(key));
+                } else {
+                    segment.liveBytes += location.recordLength();
+                    release(index.put(key, location));
+                }
+            });
+        }
+        active = segments.isEmpty() ? roll() : segments.lastEntry().getValue();
+    }
+
+    /** append a record to the active segment, new segments are opened until the record fits
+     * @param key the key bytes
+     * @param value the value bytes, null for a tombstone
+     * @param t1 the time of put
+     * @param expire the expire time
+     * @return the location of record
+     */
+    private Location append(byte[] key, byte[] value, long t1, long expire) {
+        int valueLength = value == null ? TOMBSTONE : value.length;
+        int recordLength = HEADER_SIZE + key.length + Math.max(0, valueLength);
+        // the compaction run by roll copies live records into the new segment and may fill it again
+        while (active.position + recordLength > segmentSize) {
+            active = roll();
+        }
+        Segment segment = active;
+        int offset = segment.position;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset + 4);
+        buffer.putInt(key.length);
+        buffer.putInt(valueLength);
+        buffer.putLong(t1);
+        buffer.putLong(expire);
+        buffer.put(key);
+        if (value != null) {
+            buffer.put(value);
+        }
+        segment.buffer.putInt(offset, checksum(segment, offset + 4, recordLength - 4));
+        segment.position += recordLength;
+        Location location = new Location(segment, offset, key.length, valueLength, t1, expire);
+        if (value != null) {
+            segment.liveBytes += recordLength;
+        }
+        return location;
+    }
+
+    /** open a new active segment, drop the oldest segment beyond the limit and compact the sealed segments
+     * @return the new active segment
+     */
+    private Segment roll() {
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment segment = open(id);
+        segments.put(id, segment);
+        active = segment;
+        if (!compacting) {
+            while (segments.size() > maximumSegments) {
+                drop(segments.firstEntry().getValue());
+            }
+            compactSealed();
+        }
+        return active;
+    }
+
+    private void compactSealed() {
+        compacting = true;
+        try {
+            for (Segment segment : new ArrayList<>(segments.values())) {
+                if (segment != active && segment.liveBytes < segment.position * COMPACT_LIVE_RATIO) {
+                    compact(segment);
+                }
+            }
+        } finally {
+            compacting = false;
+        }
+    }
+
+    /** copy the live records of segment forward and delete the segment file,
+     * the tombstones are kept while an older segment may still hold the removed key
+     * @param segment the sealed segment
+     */
+    private void compact(Segment segment) {
+        boolean hasOlder = segments.firstKey() < segment.id;
+        long now = System.currentTimeMillis();
+        scan(segment, (offset, key, keyLength, valueLength, t1, expire) -> {
+            Location location = index.get(key);
+            if (valueLength == TOMBSTONE) {
+                if (location == null && hasOlder) {
+                    append(key.getBytes(StandardCharsets.UTF_8), null, t1, 0);
+                }
+                return;
+            }
+            if (location == null || location.segment != segment || location.offset != offset) {
+                return;
+            }
+            if (location.isExpired(now)) {
+                index.remove(key, location);
+                return;
+            }
+            byte[] value = new byte[valueLength];
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(location.valueOffset());
+            buffer.get(value);
+            index.put(key, append(key.getBytes(StandardCharsets.UTF_8), value, t1, expire));
+        });
+        segments.remove(segment.id);
+        delete(segment);
+        compactionCount++;
+    }
+
+    private void drop(Segment segment) {
+        scan(segment, (offset, key, keyLength, valueLength, t1, expire) -> {
+            Location location = index.get(key);
+            if (location != null && location.segment == segment && index.remove(key, location)) {
+                evictionCount++;
+            }
+        });
+        segments.remove(segment.id);
+        delete(segment);
+    }
+
+    private void release(Location location) {
+        if (location != null) {
+            location.segment.liveBytes -= location.recordLength();
+        }
+    }
+
+    /** visit the valid records of segment in order, stop at the end of log or a broken record
+     * @param segment the segment
+     * @param visitor the record visitor
+     * @return the end position of valid records
+     */
+    private int scan(Segment segment, RecordVisitor visitor) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int keyLength = buffer.getInt(offset + 4);
+            int valueLength = buffer.getInt(offset + 8);
+            if (keyLength <= 0 || valueLength < TOMBSTONE) {
+                break;
+            }
+            // a torn or corrupt header could overflow int, so the lengths are bounded in long first
+            long length = (long) HEADER_SIZE + keyLength + Math.max(0, valueLength);
+            if (offset + length > segmentSize) {
+                break;
+            }
+            int recordLength = (int) length;
+            if (buffer.getInt(offset) != checksum(segment, offset + 4, recordLength - 4)) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.position(offset + HEADER_SIZE);
+            buffer.get(key);
+            visitor.visit(offset, new String(key, StandardCharsets.UTF_8), keyLength, valueLength,
+                    buffer.getLong(offset + 12), buffer.getLong(offset + 20));
+            offset += recordLength;
+        }
+        return offset;
+    }
+
+    private static int checksum(Segment segment, int offset, int length) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(offset);
+        buffer.limit(offset + length);
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    private Segment open(int id) {
+        File file = new File(directory, String.format("cache-%08d.seg", id));
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(id, file, raf, buffer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void delete(Segment segment) {
+        closeQuietly(segment);
+        if (!segment.file.delete()) {
+            segment.file.deleteOnExit();
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.randomAccessFile.close();
+        } catch (IOException e) {
+            // the mapping stays valid after the file is closed
+        }
+    }
+
+    /**
+     * the visitor of records in a segment
+     */
+    private interface RecordVisitor {
+        void visit(int offset, String key, int keyLength, int valueLength, long t1, long expire);
+    }
+
+    /**
+     * the memory-mapped segment file
+     */
+    private static final class Segment {
+        private final int id;
+        private final File file;
+        private final RandomAccessFile randomAccessFile;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long liveBytes;
+
+        private Segment(int id, File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.randomAccessFile = randomAccessFile;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * the location of the latest record of a key
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int keyLength;
+        private final int valueLength;
+        private final long t1;
+        private final long expire;
+
+        private Location(Segment segment, int offset, int keyLength, int valueLength, long t1, long expire) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+            this.t1 = t1;
+            this.expire = expire;
+        }
+
+        private int valueOffset() {
+            return offset + HEADER_SIZE + keyLength;
+        }
+
+        private int recordLength() {
+            return HEADER_SIZE + keyLength + valueLength;
+        }
+
+        private boolean isExpired(long now) {
+            return expire >= 0 && now >= t1 + expire;
+        }
+    }
+}
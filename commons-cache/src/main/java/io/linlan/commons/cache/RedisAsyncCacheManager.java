@@ -0,0 +1,226 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import io.linlan.commons.core.abs.ThreadPool;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * the asynchronous redis cache manager
+ * Filename:RedisAsyncCacheManager.java
+ * Desc:the calling thread only queues the operation and gets a future. one drain task at a time takes
+ * the queued operations in order and sends them in batches, the consecutive gets as one MGET and
+ * the consecutive puts and removes as one pipeline, so the operations of the same key keep their order
+ * and the concurrent requests share the round trips instead of holding a thread each
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 8:40 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class RedisAsyncCacheManager<T> implements AsyncCacheManager<T> {
+
+    /**
+     * the default maximum operations of one batch
+     */
+    public static final int DEFAULT_MAXIMUM_BATCH = 256;
+
+    private final Queue<Operation> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * the redis template, need to autowired or set as a bean to access
+     */
+    private RedisTemplate<String, T> redisTemplate;
+
+    /**
+     * the executor of drain task
+     */
+    private Executor executor = ThreadPool.getExecutor();
+
+    private int maximumBatch = DEFAULT_MAXIMUM_BATCH;
+
+    @Override
+    public CompletableFuture<Void> put(String key, T data, long expire) {
+        return (CompletableFuture<Void>) submit(new Operation(Operation.PUT, key, data, expire));
+    }
+
+    @Override
+    public CompletableFuture<T> get(String key) {
+        return (CompletableFuture<T>) submit(new Operation(Operation.GET, key, null, 0));
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(String key) {
+        return (CompletableFuture<Void>) submit(new Operation(Operation.REMOVE, key, null, 0));
+    }
+
+    /**set the redis template of async redis cache manager
+     * @param redisTemplate the redis template
+     */
+    public void setRedisTemplate(RedisTemplate<String, T> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**set the executor of drain task, one task runs at a time
+     * @param executor the executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**set the maximum operations of one batch
+     * @param maximumBatch the maximum operations, at least 1
+     */
+    public void setMaximumBatch(int maximumBatch) {
+        if (maximumBatch < 1) {
+            throw new IllegalArgumentException("the maximum batch must be at least 1: " + maximumBatch);
+        }
+        this.maximumBatch = maximumBatch;
+    }
+
+    private CompletableFuture<?> submit(Operation operation) {
+        queue.add(operation);
+        schedule();
+        return operation.future;
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            Operation operation;
+            while ((operation = queue.poll()) != null) {
+                operation.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            List<Operation> batch = new ArrayList<>();
+            Operation operation;
+            while ((operation = queue.poll()) != null) {
+                batch.add(operation);
+                if (batch.size() >= maximumBatch) {
+                    dispatch(batch);
+                    batch.clear();
+                }
+            }
+            dispatch(batch);
+        } finally {
+            draining.set(false);
+        }
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /** send the batch in runs, the consecutive gets as one MGET and the consecutive writes as one pipeline
+     * @param batch the operations in order of submit
+     */
+    private void dispatch(List<Operation> batch) {
+        int start = 0;
+        for (int i = 1; i <= batch.size(); i++) {
+            if (i == batch.size() || (batch.get(i).type == Operation.GET) != (batch.get(start).type == Operation.GET)) {
+                List<Operation> run = batch.subList(start, i);
+                try {
+                    if (batch.get(start).type == Operation.GET) {
+                        read(run);
+                    } else {
+                        write(run);
+                    }
+                } catch (RuntimeException | Error e) {
+                    for (Operation operation : run) {
+                        operation.future.completeExceptionally(e);
+                    }
+                }
+                start = i;
+            }
+        }
+    }
+
+    private void read(List<Operation> run) {
+        List<String> keys = new ArrayList<>(run.size());
+        for (Operation operation : run) {
+            keys.add(operation.key);
+        }
+        List<T> values = redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; i < run.size(); i++) {
+            run.get(i).future.complete(values == null ? null : values.get(i));
+        }
+    }
+
+    private void write(List<Operation> run) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, T> ops = (RedisOperations<String, T>) operations;
+                for (Operation operation : run) {
+                    if (operation.type == Operation.REMOVE) {
+                        ops.delete(operation.key);
+                    } else if (operation.expire < 0) {
+                        ops.opsForValue().set(operation.key, (T) operation.data);
+                    } else {
+                        ops.opsForValue().set(operation.key, (T) operation.data, operation.expire, TimeUnit.MILLISECONDS);
+                    }
+                }
+                return null;
+            }
+        });
+        for (Operation operation : run) {
+            operation.future.complete(null);
+        }
+    }
+
+    private static final class Operation {
+        private static final int GET = 0;
+        private static final int PUT = 1;
+        private static final int REMOVE = 2;
+
+        private final int type;
+        private final String key;
+        private final Object data;
+        private final long expire;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private Operation(int type, String key, Object data, long expire) {
+            this.type = type;
+            this.key = key;
+            this.data = data;
+            this.expire = expire;
+        }
+    }
+}
@@ -15,8 +15,15 @@
  */
 package io.linlan.commons.cache;
 
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -65,6 +72,59 @@ public class RedisCacheManager<T> implements CacheManager<T> {
         redisTemplate.delete(key);
     }
 
+    /** get the caches by input keys with one MGET
+     * @param keys the input keys
+     * @return the map of key and value in the order of keys, the missed keys are absent
+     */
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> result = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        List<T> values = redisTemplate.opsForValue().multiGet(keyList);
+        if (values != null) {
+            for (int i = 0; i < keyList.size(); i++) {
+                if (values.get(i) != null) {
+                    result.put(keyList.get(i), values.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** put all the data with pipelined SET PX commands, one round trip for all the keys
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        if (data.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, T> ops = (RedisOperations<String, T>) operations;
+                for (Map.Entry<String, ? extends T> entry : data.entrySet()) {
+                    ops.opsForValue().set(entry.getKey(), entry.getValue(), expire, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }
+        });
+    }
+
+    /** remove the keys with one DEL
+     * @param keys the input keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
     /**set the redis template of redis cache manager
      * @param redisTemplate
      */
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the redis cache manager with version-stamped namespaces and tags
+ * Filename:RedisTaggedCacheManager.java
+ * Desc:every namespace and tag has a version counter in redis, the key of entry is stamped with the versions
+ * of its namespaces, such as user:12:name#0.3, and a tagged entry keeps the versions of its tags.
+ * an invalidation is one INCR of a version, without SCAN or DEL, the entries of the old version are never read
+ * again and are freed by their expire time, so the entries put here should always have an expire time.
+ * a get costs one MGET of the namespace versions and one GET, plus one MGET of the tag versions for a tagged entry
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 8:05 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class RedisTaggedCacheManager<T> implements TaggedCacheManager<T> {
+
+    /**
+     * the default prefix of the keys of version counters
+     */
+    public static final String DEFAULT_VERSION_PREFIX = "linlan:cache:version:";
+
+    /**
+     * the separator between the key and the versions of namespaces
+     */
+    private static final char STAMP_SEPARATOR = '#';
+
+    /**
+     * the redis template, need to autowired or set as a bean to access
+     */
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private String versionPrefix = DEFAULT_VERSION_PREFIX;
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        set(stamp(key), data, expire);
+    }
+
+    /**
+     * @param key the key for get and use
+     * @param data the value of cache
+     * @param expire the expire time
+     * @param tags the tags of entry
+     */
+    @Override
+    public void put(String key, T data, long expire, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            put(key, data, expire);
+            return;
+        }
+        String[] tagArray = tags.toArray(new String[0]);
+        set(stamp(key), new Envelope(data, tagArray, versions(tagKeys(tagArray))), expire);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        String stamped = stamp(key);
+        Object value = redisTemplate.opsForValue().get(stamped);
+        if (!(value instanceof Envelope)) {
+            return (T) value;
+        }
+        Envelope envelope = (Envelope) value;
+        if (!Arrays.equals(envelope.versions, versions(tagKeys(envelope.tags)))) {
+            redisTemplate.delete(stamped);
+            return null;
+        }
+        return (T) envelope.data;
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        redisTemplate.delete(stamp(key));
+    }
+
+    /** invalidate all the entries put with the tag by one INCR
+     * @param tag the tag of entries
+     */
+    @Override
+    public void invalidateTag(String tag) {
+        increment(versionPrefix + "tag:" + tag);
+    }
+
+    /** invalidate all the entries in the namespace by one INCR
+     * @param namespace the namespace, such as user or user:12
+     */
+    @Override
+    public void invalidatePrefix(String namespace) {
+        increment(versionPrefix + "ns:" + namespace);
+    }
+
+    /**set the redis template of values, the version counters are read and written as raw numbers
+     * @param redisTemplate the redis template
+     */
+    public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**set the prefix of the keys of version counters, all the nodes must use the same prefix
+     * @param versionPrefix the prefix of version keys
+     */
+    public void setVersionPrefix(String versionPrefix) {
+        this.versionPrefix = versionPrefix;
+    }
+
+    private void set(String stamped, Object value, long expire) {
+        if (expire < 0) {
+            redisTemplate.opsForValue().set(stamped, value);
+        } else {
+            redisTemplate.opsForValue().set(stamped, value, expire, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** stamp the key with the versions of its namespaces
+     * @param key the input key
+     * @return the key in redis
+     */
+    private String stamp(String key) {
+        List<String> namespaceKeys = new ArrayList<>();
+        for (int i = key.indexOf(DELIMITER); i >= 0; i = key.indexOf(DELIMITER, i + 1)) {
+            namespaceKeys.add(versionPrefix + "ns:" + key.substring(0, i));
+        }
+        StringBuilder sb = new StringBuilder(key.length() + 2 * namespaceKeys.size() + 1).append(key).append(STAMP_SEPARATOR);
+        long[] versions = versions(namespaceKeys);
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(versions[i]);
+        }
+        return sb.toString();
+    }
+
+    private List<String> tagKeys(String[] tags) {
+        List<String> keys = new ArrayList<>(tags.length);
+        for (String tag : tags) {
+            keys.add(versionPrefix + "tag:" + tag);
+        }
+        return keys;
+    }
+
+    private long[] versions(List<String> versionKeys) {
+        long[] versions = new long[versionKeys.size()];
+        if (versionKeys.isEmpty()) {
+            return versions;
+        }
+        byte[][] rawKeys = new byte[versionKeys.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = versionKeys.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        List<byte[]> values = redisTemplate.execute((RedisConnection connection) -> connection.mGet(rawKeys), true);
+        for (int i = 0; values != null && i < versions.length; i++) {
+            byte[] value = values.get(i);
+            versions[i] = value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+        }
+        return versions;
+    }
+
+    private void increment(String versionKey) {
+        byte[] rawKey = versionKey.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisConnection connection) -> connection.incr(rawKey), true);
+    }
+
+    /**
+     * the value of a tagged entry with the versions of its tags at put
+     */
+    private static final class Envelope implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Object data;
+        private String[] tags;
+        private long[] versions;
+
+        private Envelope(Object data, String[] tags, long[] versions) {
+            this.data = data;
+            this.tags = tags;
+            this.versions = versions;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.io.Serializable;
+
+/**
+ * the snapshot of the health of one shard
+ * Filename:ShardStats.java
+ * Desc:the values taken by {@link ShardedCacheManager#getShardStats()}, the latencies are in nanoseconds,
+ * a shard is unhealthy after {@link ShardedCacheManager#setFailureThreshold(int) the threshold} of
+ * consecutive failures, until an operation on it succeeds again
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:00 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ShardStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final long requestCount;
+    private final long failureCount;
+    private final int consecutiveFailures;
+    private final long lastFailureTime;
+    private final long latencyP50;
+    private final long latencyP99;
+    private final boolean healthy;
+
+    public ShardStats(String name, long requestCount, long failureCount, int consecutiveFailures,
+                      long lastFailureTime, long latencyP50, long latencyP99, boolean healthy) {
+        this.name = name;
+        this.requestCount = requestCount;
+        this.failureCount = failureCount;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastFailureTime = lastFailureTime;
+        this.latencyP50 = latencyP50;
+        this.latencyP99 = latencyP99;
+        this.healthy = healthy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /** get the time of the last failure
+     * @return the time in milliseconds, 0 if never failed
+     */
+    public long getLastFailureTime() {
+        return lastFailureTime;
+    }
+
+    public long getLatencyP50() {
+        return latencyP50;
+    }
+
+    public long getLatencyP99() {
+        return latencyP99;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardStats{name=" + name + ", requestCount=" + requestCount + ", failureCount=" + failureCount
+                + ", consecutiveFailures=" + consecutiveFailures + ", lastFailureTime=" + lastFailureTime
+                + ", latencyP50=" + latencyP50 + ", latencyP99=" + latencyP99 + ", healthy=" + healthy + "}";
+    }
+}
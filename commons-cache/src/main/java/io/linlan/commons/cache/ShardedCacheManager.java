@@ -0,0 +1,342 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import io.linlan.commons.core.HashUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * the sharded cache manager over several cache managers
+ * Filename:ShardedCacheManager.java
+ * Desc:the keys are routed by a consistent hash ring of {@link HashUtils#fnvHash1(String)}, each shard,
+ * such as a {@link RedisCacheManager} of one redis node, owns many virtual nodes on the ring,
+ * so a shard added or removed only remaps about 1/N of the keys. the batch operations are split by shard,
+ * every shard keeps its requests, failures and latencies for {@link #getShardStats()}
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 9:05 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ShardedCacheManager<T> implements CacheManager<T> {
+
+    /**
+     * the default virtual nodes of each shard
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * the default consecutive failures to report a shard unhealthy
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+
+    private final int virtualNodes;
+
+    /**
+     * the shards by name in the order added
+     */
+    private final Map<String, Shard<T>> shards = new LinkedHashMap<>();
+
+    /**
+     * the ring rebuilt on every change of shards, read without lock
+     */
+    private volatile Ring<T> ring = new Ring<>(new int[0], newShards(0));
+
+    private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+
+    /** constructor of ShardedCacheManager
+     * @param shards the cache managers by shard name
+     */
+    public ShardedCacheManager(Map<String, ? extends CacheManager<T>> shards) {
+        this(shards, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /** constructor of ShardedCacheManager
+     * @param shards the cache managers by shard name
+     * @param virtualNodes the virtual nodes of each shard
+     */
+    public ShardedCacheManager(Map<String, ? extends CacheManager<T>> shards, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("the virtual nodes must be at least 1: " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+        for (Map.Entry<String, ? extends CacheManager<T>> entry : shards.entrySet()) {
+            this.shards.put(entry.getKey(), new Shard<>(entry.getKey(), entry.getValue()));
+        }
+        rebuild();
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        Shard<T> shard = shardFor(key);
+        call(shard, () -> {
+            shard.manager.put(key, data, expire);
+            return null;
+        });
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        Shard<T> shard = shardFor(key);
+        return call(shard, () -> shard.manager.get(key));
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        Shard<T> shard = shardFor(key);
+        call(shard, () -> {
+            shard.manager.remove(key);
+            return null;
+        });
+    }
+
+    /** get the caches by input keys, one batch for each shard
+     * @param keys the input keys
+     * @return the map of key and value in the order of keys, the missed keys are absent
+     */
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> found = new LinkedHashMap<>();
+        for (Map.Entry<Shard<T>, List<String>> entry : groupByShard(keys).entrySet()) {
+            Shard<T> shard = entry.getKey();
+            found.putAll(call(shard, () -> shard.manager.getAll(entry.getValue())));
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            T data = found.get(key);
+            if (data != null) {
+                result.put(key, data);
+            }
+        }
+        return result;
+    }
+
+    /** put all the data, one batch for each shard
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        Map<Shard<T>, Map<String, T>> batches = new LinkedHashMap<>();
+        Ring<T> current = ring;
+        for (Map.Entry<String, ? extends T> entry : data.entrySet()) {
+            batches.computeIfAbsent(current.shardFor(entry.getKey()), s -> new LinkedHashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Shard<T>, Map<String, T>> entry : batches.entrySet()) {
+            Shard<T> shard = entry.getKey();
+            call(shard, () -> {
+                shard.manager.putAll(entry.getValue(), expire);
+                return null;
+            });
+        }
+    }
+
+    /** remove the keys, one batch for each shard
+     * @param keys the input keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        for (Map.Entry<Shard<T>, List<String>> entry : groupByShard(keys).entrySet()) {
+            Shard<T> shard = entry.getKey();
+            call(shard, () -> {
+                shard.manager.removeAll(entry.getValue());
+                return null;
+            });
+        }
+    }
+
+    /** add a shard to the ring, about 1/N of the keys are remapped to it
+     * @param name the unique name of shard, such as host:port
+     * @param manager the cache manager of shard
+     */
+    public synchronized void addShard(String name, CacheManager<T> manager) {
+        if (shards.containsKey(name)) {
+            throw new IllegalArgumentException("the shard " + name + " is already added");
+        }
+        shards.put(name, new Shard<>(name, manager));
+        rebuild();
+    }
+
+    /** remove a shard from the ring, its keys are remapped to the other shards
+     * @param name the name of shard
+     * @return the cache manager of shard, null if not found
+     */
+    public synchronized CacheManager<T> removeShard(String name) {
+        Shard<T> shard = shards.remove(name);
+        if (shard == null) {
+            return null;
+        }
+        rebuild();
+        return shard.manager;
+    }
+
+    /** get the name of the shard owning the key
+     * @param key the input key
+     * @return the name of shard
+     */
+    public String shardOf(String key) {
+        return shardFor(key).name;
+    }
+
+    /** get the health of every shard
+     * @return the shard stats by name in the order added
+     */
+    public synchronized Map<String, ShardStats> getShardStats() {
+        Map<String, ShardStats> stats = new LinkedHashMap<>();
+        for (Shard<T> shard : shards.values()) {
+            int consecutiveFailures = shard.consecutiveFailures.get();
+            stats.put(shard.name, new ShardStats(shard.name, shard.requests.sum(), shard.failures.sum(),
+                    consecutiveFailures, shard.lastFailureTime, shard.latency.getPercentile(0.5),
+                    shard.latency.getPercentile(0.99), consecutiveFailures < failureThreshold));
+        }
+        return stats;
+    }
+
+    /**set the consecutive failures to report a shard unhealthy
+     * @param failureThreshold the consecutive failures, at least 1
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("the failure threshold must be at least 1: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    private Shard<T> shardFor(String key) {
+        return ring.shardFor(key);
+    }
+
+    private Map<Shard<T>, List<String>> groupByShard(Collection<String> keys) {
+        Map<Shard<T>, List<String>> groups = new LinkedHashMap<>();
+        Ring<T> current = ring;
+        for (String key : keys) {
+            groups.computeIfAbsent(current.shardFor(key), s -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+
+    private <R> R call(Shard<T> shard, Supplier<R> operation) {
+        long start = System.nanoTime();
+        shard.requests.increment();
+        try {
+            R result = operation.get();
+            shard.consecutiveFailures.set(0);
+            return result;
+        } catch (RuntimeException | Error e) {
+            shard.failures.increment();
+            shard.consecutiveFailures.incrementAndGet();
+            shard.lastFailureTime = System.currentTimeMillis();
+            throw e;
+        } finally {
+            shard.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * rebuild the ring from the shards, the points of a shard never move when the other shards change
+     */
+    private void rebuild() {
+        List<Shard<T>> list = new ArrayList<>(shards.values());
+        long[] entries = new long[list.size() * virtualNodes];
+        int n = 0;
+        for (int s = 0; s < list.size(); s++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int point = HashUtils.fnvHash1(list.get(s).name + "#" + v);
+                entries[n++] = ((long) point << 32) | s;
+            }
+        }
+        Arrays.sort(entries);
+        int[] points = new int[n];
+        Shard<T>[] owners = newShards(n);
+        for (int i = 0; i < n; i++) {
+            points[i] = (int) (entries[i] >> 32);
+            owners[i] = list.get((int) entries[i]);
+        }
+        ring = new Ring<>(points, owners);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Shard<T>[] newShards(int length) {
+        return new Shard[length];
+    }
+
+    private static final class Ring<T> {
+        private final int[] points;
+        private final Shard<T>[] owners;
+
+        private Ring(int[] points, Shard<T>[] owners) {
+            this.points = points;
+            this.owners = owners;
+        }
+
+        private Shard<T> shardFor(String key) {
+            if (points.length == 0) {
+                throw new IllegalStateException("no shard is added to the sharded cache manager");
+            }
+            int index = Arrays.binarySearch(points, HashUtils.fnvHash1(key));
+            if (index < 0) {
+                index = -index - 1;
+                if (index == points.length) {
+                    index = 0;
+                }
+            }
+            return owners[index];
+        }
+    }
+
+    private static final class Shard<T> {
+        private final String name;
+        private final CacheManager<T> manager;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private volatile long lastFailureTime;
+
+        private Shard(String name, CacheManager<T> manager) {
+            this.name = name;
+            this.manager = manager;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * the statistics cache manager to decorate any cache manager
+ * Filename:StatsCacheManager.java
+ * Desc:the hits, misses, puts, removes and their latencies are recorded in a {@link CacheStatsCounter},
+ * the size, serialized bytes and evictions are read from the decorated manager when it is a {@link CacheUsage}.
+ * the statistics could be taken by {@link #snapshot()} or exposed by JMX with {@link #registerMBean(String)},
+ * share the counter with a {@link LoadingCacheManager} to record the load times
+ * and with a {@link CompressingSerializer} to record the compression ratio as well
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 5:55 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class StatsCacheManager<T> implements CacheManager<T>, CacheStatsMXBean {
+
+    /**
+     * the domain of the object name registered in JMX
+     */
+    public static final String JMX_DOMAIN = "io.linlan.commons.cache";
+
+    /**
+     * the cache manager to be decorated
+     */
+    private final CacheManager<T> delegate;
+
+    private final CacheStatsCounter statsCounter;
+
+    /**
+     * the object name registered in JMX, null if not registered
+     */
+    private ObjectName objectName;
+
+    /** constructor of StatsCacheManager
+     * @param delegate the cache manager to be decorated
+     */
+    public StatsCacheManager(CacheManager<T> delegate) {
+        this(delegate, new CacheStatsCounter());
+    }
+
+    /** constructor of StatsCacheManager
+     * @param delegate the cache manager to be decorated
+     * @param statsCounter the counter to record in
+     */
+    public StatsCacheManager(CacheManager<T> delegate, CacheStatsCounter statsCounter) {
+        this.delegate = delegate;
+        this.statsCounter = statsCounter;
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        long start = System.nanoTime();
+        delegate.put(key, data, expire);
+        statsCounter.recordPut(1, System.nanoTime() - start);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        long start = System.nanoTime();
+        T data = delegate.get(key);
+        statsCounter.recordGet(key, data != null, System.nanoTime() - start);
+        return data;
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+        statsCounter.recordRemove(1);
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        long start = System.nanoTime();
+        Map<String, T> result = delegate.getAll(keys);
+        statsCounter.recordGetAll(result.size(), keys.size() - result.size(), System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        long start = System.nanoTime();
+        delegate.putAll(data, expire);
+        statsCounter.recordPut(data.size(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        delegate.removeAll(keys);
+        statsCounter.recordRemove(keys.size());
+    }
+
+    /** take a snapshot of the statistics
+     * @return the snapshot of statistics
+     */
+    public CacheStats snapshot() {
+        return statsCounter.snapshot(usage());
+    }
+
+    /** register the statistics in the platform MBean server
+     * as io.linlan.commons.cache:type=CacheStats,name=the input name
+     * @param name the name of cache
+     */
+    public synchronized void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=CacheStats,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("failed to register the cache statistics of " + name, e);
+        }
+    }
+
+    /**
+     * unregister the statistics from the platform MBean server, nothing happens if not registered
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("failed to unregister the cache statistics of " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    public CacheManager<T> getDelegate() {
+        return delegate;
+    }
+
+    public CacheStatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    @Override
+    public long getHitCount() {
+        return statsCounter.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return statsCounter.getMissCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hits = statsCounter.getHitCount();
+        long requests = hits + statsCounter.getMissCount();
+        return requests == 0 ? 1.0d : (double) hits / requests;
+    }
+
+    @Override
+    public long getPutCount() {
+        return statsCounter.getPutCount();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return statsCounter.getRemoveCount();
+    }
+
+    @Override
+    public long getLoadSuccessCount() {
+        return statsCounter.getLoadSuccessCount();
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return statsCounter.getLoadFailureCount();
+    }
+
+    @Override
+    public double getAverageLoadPenalty() {
+        return statsCounter.getLoadLatency().getMean();
+    }
+
+    @Override
+    public long getSize() {
+        CacheUsage usage = usage();
+        return usage == null ? -1 : usage.size();
+    }
+
+    @Override
+    public long getByteSize() {
+        CacheUsage usage = usage();
+        return usage == null ? -1 : usage.getByteSize();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        CacheUsage usage = usage();
+        return usage == null ? -1 : usage.getEvictionCount();
+    }
+
+    @Override
+    public long getGetLatencyP50() {
+        return statsCounter.getGetLatency().getPercentile(0.5);
+    }
+
+    @Override
+    public long getGetLatencyP99() {
+        return statsCounter.getGetLatency().getPercentile(0.99);
+    }
+
+    @Override
+    public long getGetLatencyP999() {
+        return statsCounter.getGetLatency().getPercentile(0.999);
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        return statsCounter.getCompressionRatio();
+    }
+
+    @Override
+    public Map<String, Long> getPrefixAccesses() {
+        return statsCounter.getPrefixAccesses();
+    }
+
+    private CacheUsage usage() {
+        return delegate instanceof CacheUsage ? (CacheUsage) delegate : null;
+    }
+}
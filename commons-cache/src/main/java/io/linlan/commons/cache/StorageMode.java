@@ -0,0 +1,49 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+/**
+ * the storage mode of value in heap cache manager
+ * Filename:StorageMode.java
+ * Desc:how the value is kept by {@link CacheObject}, decide who pays the serialization cost
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 11:30 AM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public enum StorageMode {
+
+    /**
+     * serialize on put and deserialize on every get, each reader gets its own copy of value
+     */
+    SERIALIZED,
+
+    /**
+     * keep the value by reference, no serialization at all, only for immutable values
+     * or values the callers never modify after put
+     */
+    REFERENCE,
+
+    /**
+     * copy the value once on put and keep the copy by reference, the put pays the serialization cost,
+     * the readers share the copy and must not modify it
+     */
+    COPY_ON_WRITE
+
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the tag index cache manager to decorate a local cache manager
+ * Filename:TagIndexCacheManager.java
+ * Desc:the keys are indexed by tag and kept sorted, so {@link #invalidateTag(String)} removes
+ * the entries of the tag only and {@link #invalidatePrefix(String)} removes the range of the namespace,
+ * without a scan of the cache. every {@link #PRUNE_INTERVAL} puts the next {@link #PRUNE_BATCH} keys of the index
+ * are checked in key order, the keys expired, evicted or never expire but gone from the decorated manager are pruned,
+ * so the index is bounded by the decorated manager and each put pays for two keys at most.
+ * the presence is checked by {@link CacheUsage#containsKey(String)}, which neither reads the value nor counts as an access,
+ * a decorated manager without {@link CacheUsage} is pruned by the deadlines only
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:50 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class TagIndexCacheManager<T> implements TaggedCacheManager<T> {
+
+    /**
+     * the puts between two prunes of the index
+     */
+    private static final int PRUNE_INTERVAL = 1024;
+
+    /**
+     * the keys checked by one prune, more than the puts between two prunes so the index is walked through
+     */
+    private static final int PRUNE_BATCH = PRUNE_INTERVAL * 2;
+
+    /**
+     * the cache manager to be decorated
+     */
+    private final CacheManager<T> delegate;
+
+    /**
+     * the tags and the deadline of each key, sorted by key for the ranges of namespaces
+     */
+    private final ConcurrentNavigableMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    /**
+     * the keys of each tag
+     */
+    private final ConcurrentMap<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+
+    private final AtomicInteger putCount = new AtomicInteger();
+
+    /**
+     * the last key checked by prune, null to start from the first key
+     */
+    private String pruneCursor;
+
+    /** constructor of TagIndexCacheManager
+     * @param delegate the local cache manager to be decorated
+     */
+    public TagIndexCacheManager(CacheManager<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        put(key, data, expire, Collections.emptySet());
+    }
+
+    /**
+     * @param key the key for get and use
+     * @param data the value of cache
+     * @param expire the expire time
+     * @param tags the tags of entry
+     */
+    @Override
+    public void put(String key, T data, long expire, Collection<String> tags) {
+        delegate.put(key, data, expire);
+        long now = System.currentTimeMillis();
+        index(key, tags.isEmpty() ? Collections.emptySet() : new HashSet<>(tags), expire < 0 ? Long.MAX_VALUE : now + expire);
+        if (putCount.incrementAndGet() % PRUNE_INTERVAL == 0) {
+            prune(now);
+        }
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        return delegate.get(key);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        delegate.remove(key);
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(key, entry.tags);
+        }
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        return delegate.getAll(keys);
+    }
+
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        delegate.putAll(data, expire);
+        long now = System.currentTimeMillis();
+        for (String key : data.keySet()) {
+            index(key, Collections.emptySet(), expire < 0 ? Long.MAX_VALUE : now + expire);
+        }
+        int count = putCount.addAndGet(data.size());
+        if (count / PRUNE_INTERVAL != (count - data.size()) / PRUNE_INTERVAL) {
+            prune(now);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        delegate.removeAll(keys);
+        for (String key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unlink(key, entry.tags);
+            }
+        }
+    }
+
+    /** invalidate all the entries put with the tag, in O(entries with the tag)
+     * @param tag the tag of entries
+     */
+    @Override
+    public void invalidateTag(String tag) {
+        Set<String> keys = keysByTag.remove(tag);
+        if (keys == null) {
+            return;
+        }
+        List<String> removed = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.tags.contains(tag) && entries.remove(key, entry)) {
+                unlink(key, entry.tags);
+                removed.add(key);
+            }
+        }
+        delegate.removeAll(removed);
+    }
+
+    /** invalidate all the entries in the namespace, in O(log(entries) + entries in the namespace)
+     * @param namespace the namespace, such as user or user:12
+     */
+    @Override
+    public void invalidatePrefix(String namespace) {
+        Map<String, Entry> range = entries.subMap(namespace + DELIMITER, namespace + (char) (DELIMITER + 1));
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : range.entrySet()) {
+            if (entries.remove(e.getKey(), e.getValue())) {
+                unlink(e.getKey(), e.getValue().tags);
+                removed.add(e.getKey());
+            }
+        }
+        delegate.removeAll(removed);
+    }
+
+    /** get the count of keys in index
+     * @return the indexed keys
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    public CacheManager<T> getDelegate() {
+        return delegate;
+    }
+
+    private void index(String key, Set<String> tags, long deadline) {
+        Entry previous = entries.put(key, new Entry(tags, deadline));
+        if (previous != null && !previous.tags.isEmpty()) {
+            Set<String> dropped = new HashSet<>(previous.tags);
+            dropped.removeAll(tags);
+            unlink(key, dropped);
+        }
+        for (String tag : tags) {
+            keysByTag.compute(tag, (t, keys) -> {
+                if (keys == null) {
+                    keys = ConcurrentHashMap.newKeySet();
+                }
+                keys.add(key);
+                return keys;
+            });
+        }
+    }
+
+    private void unlink(String key, Set<String> tags) {
+        for (String tag : tags) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * check the next batch of keys after the cursor, drop the keys expired or missing in the decorated manager
+     */
+    private synchronized void prune(long now) {
+        Map<String, Entry> tail = pruneCursor == null ? entries : entries.tailMap(pruneCursor, false);
+        Map<String, Entry> batch = new HashMap<>();
+        for (Map.Entry<String, Entry> e : tail.entrySet()) {
+            if (batch.size() >= PRUNE_BATCH) {
+                break;
+            }
+            batch.put(e.getKey(), e.getValue());
+            pruneCursor = e.getKey();
+        }
+        if (batch.size() < PRUNE_BATCH) {
+            pruneCursor = null;
+        }
+        CacheUsage usage = delegate instanceof CacheUsage ? (CacheUsage) delegate : null;
+        batch.forEach((key, entry) -> {
+            if (entry.deadline <= now || (usage != null && !usage.containsKey(key))) {
+                drop(key, entry);
+            }
+        });
+    }
+
+    private void drop(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            unlink(key, entry.tags);
+        }
+    }
+
+    private static final class Entry {
+        private final Set<String> tags;
+        private final long deadline;
+
+        private Entry(Set<String> tags, long deadline) {
+            this.tags = tags;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import java.util.Collection;
+
+/**
+ * the Interface for cache operation with tags and namespaces
+ * Filename:TaggedCacheManager.java
+ * Desc: the cache manager to drop all the entries of a tag or a namespace at once,
+ * such as all the aggregates built on a datasource. the namespaces of a key are the parts
+ * before each delimiter, the key user:12:name is in the namespaces user and user:12
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 7:45 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface TaggedCacheManager<T> extends CacheManager<T> {
+
+    /**
+     * the delimiter of namespaces in key
+     */
+    char DELIMITER = ':';
+
+    /** put data to key with expire time and tags
+     * @param key the key for get and use
+     * @param data the value of cache
+     * @param expire the expire time
+     * @param tags the tags of entry, such as the datasources of an aggregate
+     */
+    void put(String key, T data, long expire, Collection<String> tags);
+
+    /** invalidate all the entries put with the tag
+     * @param tag the tag of entries
+     */
+    void invalidateTag(String tag);
+
+    /** invalidate all the entries in the namespace, the keys beginning with the namespace and {@link #DELIMITER}
+     * @param namespace the namespace, such as user or user:12
+     */
+    void invalidatePrefix(String namespace);
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * the two level cache manager, a local near cache in front of a shared remote cache
+ * Filename:TieredCacheManager.java
+ * Desc:the hot keys are served by the local L1 tier, such as {@link BoundedHeapCacheManager},
+ * without a round trip to the remote L2 tier, such as {@link RedisCacheManager}.
+ * writes go to both tiers, the L1 entries live at most the local expire time, and every put or remove
+ * publishes the key to a redis channel so the other nodes drop their L1 copy. register this manager
+ * to a RedisMessageListenerContainer with {@link #getTopic()} to receive the invalidations
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 3:30 PM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class TieredCacheManager<T> implements CacheManager<T>, MessageListener {
+
+    /**
+     * the default redis channel of L1 invalidation
+     */
+    public static final String DEFAULT_CHANNEL = "linlan:cache:invalidate";
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * the local L1 tier
+     */
+    private final CacheManager<T> local;
+
+    /**
+     * the remote L2 tier
+     */
+    private final CacheManager<T> remote;
+
+    /**
+     * the maximum expire time of L1 entries, it bounds how long a missed invalidation could be stale
+     */
+    private final long localExpire;
+
+    /**
+     * the id of this node, the invalidations published by itself are ignored
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * the redis template to publish invalidations, null means single node without invalidation
+     */
+    private RedisTemplate<String, ?> redisTemplate;
+
+    private String channel = DEFAULT_CHANNEL;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /** constructor of TieredCacheManager
+     * @param local the local L1 tier
+     * @param remote the remote L2 tier
+     * @param localExpire the maximum expire time of L1 entries
+     */
+    public TieredCacheManager(CacheManager<T> local, CacheManager<T> remote, long localExpire) {
+        this.local = local;
+        this.remote = remote;
+        this.localExpire = localExpire;
+    }
+
+    /**
+     * @param key    the key for get and use
+     * @param data   the value of cache
+     * @param expire the expire time
+     */
+    @Override
+    public void put(String key, T data, long expire) {
+        remote.put(key, data, expire);
+        local.put(key, data, localExpire(expire));
+        publish(key);
+    }
+
+    /**
+     * @param key the input key, the unique key
+     * @return T, the value of cache
+     */
+    @Override
+    public T get(String key) {
+        T data = local.get(key);
+        if (data != null) {
+            localHits.increment();
+            return data;
+        }
+        data = remote.get(key);
+        if (data != null) {
+            remoteHits.increment();
+            local.put(key, data, localExpire);
+        } else {
+            misses.increment();
+        }
+        return data;
+    }
+
+    /**
+     * @param key the input key, the unique key
+     */
+    @Override
+    public void remove(String key) {
+        remote.remove(key);
+        local.remove(key);
+        publish(key);
+    }
+
+    /** get the caches from L1 first, the missed keys are fetched from L2 in one batch and kept in L1
+     * @param keys the input keys
+     * @return the map of key and value in the order of keys, the missed keys are absent
+     */
+    @Override
+    public Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> found = local.getAll(keys);
+        localHits.add(found.size());
+        if (found.size() == keys.size()) {
+            return found;
+        }
+        List<String> missed = new ArrayList<>();
+        for (String key : keys) {
+            if (!found.containsKey(key)) {
+                missed.add(key);
+            }
+        }
+        Map<String, T> loaded = remote.getAll(missed);
+        remoteHits.add(loaded.size());
+        misses.add(missed.size() - loaded.size());
+        if (!loaded.isEmpty()) {
+            local.putAll(loaded, localExpire);
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            T data = found.containsKey(key) ? found.get(key) : loaded.get(key);
+            if (data != null) {
+                result.put(key, data);
+            }
+        }
+        return result;
+    }
+
+    /** put all the data to both tiers in batches and publish the keys in one pipeline
+     * @param data the map of key and value
+     * @param expire the expire time
+     */
+    @Override
+    public void putAll(Map<String, ? extends T> data, long expire) {
+        remote.putAll(data, expire);
+        local.putAll(data, localExpire(expire));
+        publish(data.keySet());
+    }
+
+    /** remove the keys from both tiers in batches and publish the keys in one pipeline
+     * @param keys the input keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        remote.removeAll(keys);
+        local.removeAll(keys);
+        publish(keys);
+    }
+
+    /** receive the invalidation published by the other nodes and drop the L1 copy
+     * @param message the message of key
+     * @param pattern the pattern of channel
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(SEPARATOR);
+        if (index < 0 || nodeId.equals(body.substring(0, index))) {
+            return;
+        }
+        local.remove(body.substring(index + 1));
+        invalidations.increment();
+    }
+
+    /** get the topic to register this manager to a RedisMessageListenerContainer
+     * @return the channel topic of invalidation
+     */
+    public ChannelTopic getTopic() {
+        return new ChannelTopic(channel);
+    }
+
+    /** get the count of gets served by the L1 tier
+     * @return the L1 hit count
+     */
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    /** get the count of gets served by the L2 tier
+     * @return the L2 hit count
+     */
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    /** get the count of gets missed by both tiers
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** get the count of L1 entries dropped by the invalidations of other nodes
+     * @return the invalidation count
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    public CacheManager<T> getLocal() {
+        return local;
+    }
+
+    public CacheManager<T> getRemote() {
+        return remote;
+    }
+
+    /**set the redis template to publish invalidations, the serializers of template are not used
+     * @param redisTemplate the redis template
+     */
+    public void setRedisTemplate(RedisTemplate<String, ?> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**set the redis channel of invalidation, all the nodes must use the same channel
+     * @param channel the redis channel
+     */
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    private long localExpire(long expire) {
+        return expire < 0 ? localExpire : Math.min(expire, localExpire);
+    }
+
+    private void publish(String key) {
+        if (redisTemplate != null) {
+            byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            byte[] body = (nodeId + SEPARATOR + key).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute(connection -> connection.publish(channelBytes, body), true);
+        }
+    }
+
+    private void publish(Collection<String> keys) {
+        if (redisTemplate != null && !keys.isEmpty()) {
+            byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.publish(channelBytes, (nodeId + SEPARATOR + key).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.commons.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * the test of PersistentCacheManager
+ * Filename:PersistentCacheManagerTest.java
+ * Desc:churning puts and removes on small segments, the values read back are the latest ones or evicted
+ *
+ * @author Linlan
+ * CreateTime:2026-10-18 9:10 AM
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class PersistentCacheManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void churnOnSmallSegments() throws Exception {
+        Map<String, byte[]> latest = new HashMap<>();
+        try (PersistentCacheManager<byte[]> cache = new PersistentCacheManager<>(folder.getRoot(), 4096, 64 * 1024)) {
+            Random random = new Random(20261018);
+            for (int i = 0; i < 20000; i++) {
+                String key = "key" + random.nextInt(40);
+                if (random.nextInt(4) == 0) {
+                    cache.remove(key);
+                    latest.remove(key);
+                } else {
+                    byte[] value = new byte[300];
+                    random.nextBytes(value);
+                    cache.put(key, value, -1);
+                    latest.put(key, value);
+                }
+            }
+            assertLatest(cache, latest);
+        }
+        try (PersistentCacheManager<byte[]> cache = new PersistentCacheManager<>(folder.getRoot(), 4096, 64 * 1024)) {
+            assertLatest(cache, latest);
+        }
+    }
+
+    private static void assertLatest(PersistentCacheManager<byte[]> cache, Map<String, byte[]> latest) {
+        for (int k = 0; k < 40; k++) {
+            String key = "key" + k;
+            byte[] value = cache.get(key);
+            if (value != null || !latest.containsKey(key)) {
+                if (latest.containsKey(key)) {
+                    assertArrayEquals(key, latest.get(key), value);
+                } else {
+                    assertNull(key + " " + Arrays.toString(value), value);
+                }
+            }
+        }
+    }
+}
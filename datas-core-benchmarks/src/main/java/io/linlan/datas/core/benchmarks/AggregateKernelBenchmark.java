@@ -0,0 +1,132 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.benchmarks;
+
+import io.linlan.datas.core.provider.result.ColumnIndex;
+import io.linlan.datas.core.utils.AggregateCollector;
+import io.linlan.datas.core.utils.AggregateKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * the aggregation cost of raw rows
+ * Filename:AggregateKernelBenchmark.java
+ * Desc:groups the rows by the first column and aggregates sum, avg, max, min, distinct and count,
+ * with {@link AggregateCollector} under Collectors.groupingBy against {@link AggregateKernel},
+ * the cells are shared strings as in a cached result, so the memory is mostly the row arrays,
+ * run with -prof gc for the bytes allocated by each, such as
+ * java -jar datas-core-benchmarks/target/benchmarks.jar AggregateKernelBenchmark -prof gc
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 21:30
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class AggregateKernelBenchmark {
+
+    private static final int POOL = 1024;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"10", "10000"})
+    public int groups;
+
+    private String[][] data;
+    private List<ColumnIndex> valueList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1);
+        String[] keys = new String[groups];
+        for (int i = 0; i < groups; i++) {
+            keys[i] = "group-" + i;
+        }
+        String[] regions = new String[16];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = "region-" + i;
+        }
+        String[] integers = new String[POOL];
+        String[] decimals = new String[POOL];
+        for (int i = 0; i < POOL; i++) {
+            integers[i] = Integer.toString(random.nextInt(100000));
+            decimals[i] = Double.toString(Math.round(random.nextDouble() * 1000000) / 100.0d);
+        }
+        data = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new String[]{keys[random.nextInt(groups)], regions[random.nextInt(regions.length)],
+                    integers[random.nextInt(POOL)], decimals[random.nextInt(POOL)]};
+        }
+        valueList = new ArrayList<>();
+        String[] aggTypes = {"sum", "avg", "max", "min", "distinct", "count"};
+        int[] sources = {2, 3, 3, 2, 1, 0};
+        for (int i = 0; i < aggTypes.length; i++) {
+            ColumnIndex column = new ColumnIndex();
+            column.setIndex(sources[i]);
+            column.setAggType(aggTypes[i]);
+            valueList.add(column);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double[]> collector() {
+        return Arrays.stream(data).collect(Collectors.groupingBy(row -> row[0], AggregateCollector.getCollector(valueList)));
+    }
+
+    @Benchmark
+    public Map<String, double[]> kernel() {
+        AggregateKernel kernel = new AggregateKernel(valueList);
+        Map<String, Integer> groupIds = new HashMap<>();
+        for (String[] row : data) {
+            Integer group = groupIds.get(row[0]);
+            if (group == null) {
+                group = kernel.addGroup();
+                groupIds.put(row[0], group);
+            }
+            kernel.accumulate(group, row);
+        }
+        Map<String, double[]> result = new HashMap<>(groupIds.size() * 2);
+        groupIds.forEach((key, group) -> result.put(key, kernel.result(group)));
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.benchmarks;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.utils.HashGroupBy;
+import io.linlan.datas.core.utils.ParallelGroupBy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the scaling of parallel group-by
+ * Filename:ParallelGroupByBenchmark.java
+ * Desc:the same rows grouped by {@link HashGroupBy} in one thread and by {@link ParallelGroupBy}
+ * in a pool of 1, 2, 4 ... threads, the parallelism is capped at the processors, such as
+ * java -jar datas-core-benchmarks/target/benchmarks.jar ParallelGroupByBenchmark -p parallelism=1,8,32
+ *
+ * @author Linlan
+ * CreateTime:2026-10-17 23:20
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class ParallelGroupByBenchmark {
+
+    private static final String[] COLUMN_NAMES = {"region", "city", "amount", "price"};
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"10000"})
+    public int groups;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int parallelism;
+
+    private String[][] data;
+    private AggConfig config;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(Math.min(parallelism, Runtime.getRuntime().availableProcessors()));
+        Random random = new Random(1);
+        String[] regions = new String[16];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = "region-" + i;
+        }
+        String[] cities = new String[Math.max(1, groups / regions.length)];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = "city-" + i;
+        }
+        String[] amounts = new String[1024];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Integer.toString(random.nextInt(100000));
+        }
+        data = new String[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new String[]{regions[random.nextInt(regions.length)], cities[random.nextInt(cities.length)],
+                    amounts[random.nextInt(amounts.length)], amounts[random.nextInt(amounts.length)]};
+        }
+        config = new AggConfig();
+        config.setColumns(Collections.singletonList(dimension("region")));
+        config.setRows(Collections.singletonList(dimension("city")));
+        config.setFilters(new ArrayList<>());
+        config.setValues(Arrays.asList(value("amount", "sum"), value("price", "avg"), value("price", "max"),
+                value("amount", "min"), value("city", "count")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sequential() {
+        return HashGroupBy.aggregate(config, COLUMN_NAMES, data);
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return ParallelGroupBy.aggregate(config, COLUMN_NAMES, data, pool);
+    }
+
+    private static DimensionConfig dimension(String columnName) {
+        DimensionConfig dimension = new DimensionConfig();
+        dimension.setColumnName(columnName);
+        dimension.setValues(new ArrayList<>());
+        return dimension;
+    }
+
+    private static ValueConfig value(String column, String aggType) {
+        ValueConfig value = new ValueConfig();
+        value.setColumn(column);
+        value.setAggType(aggType);
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.abs;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+
+import java.util.Iterator;
+
+/**
+ *
+ * Filename:IncrementalSource.java
+ * Desc: 增量刷新的明细行来源接口，支持增量刷新的数据源在Aggregatable之外实现该接口，
+ * 明细行以流的方式交给处理器，不需要全部加载到内存
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 04:30
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface IncrementalSource {
+
+    /**
+     * 查询水位列不小于from的明细行，用于增量刷新，查询结果打开期间调用handler，handler返回后关闭查询结果
+     *
+     * @param ac    聚合配置类，明细行需要包括其维度、过滤条件和值引用的列
+     * @param watermarkColumn   水位列，追加的数据在该列上递增，明细行需要包括该列
+     * @param from     水位的下界，包括等于下界的行，null表示查询全部明细行
+     * @param handler   明细行的处理器
+     */
+    void queryAppendedRows(AggConfig ac, String watermarkColumn, String from, RowsHandler handler) throws Exception;
+
+    /**
+     * 明细行的处理器
+     */
+    interface RowsHandler {
+
+        /**
+         * 处理明细行，迭代器可以重复返回同一个行数组，需要保留的值要先复制
+         *
+         * @param columnNames   明细列的名称
+         * @param rows  明细行
+         */
+        void handle(String[] columnNames, Iterator<String[]> rows) throws Exception;
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.datas.core.abs.Aggregatable;
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.result.AggregateResult;
+
+/**
+ *
+ * Filename:CubeAggregatable.java
+ * Desc: 使用上卷立方体的聚合装饰类，聚合配置被已物化的立方体覆盖时由立方体上卷得到结果，
+ * 否则交给被装饰的数据源执行SQL，其它方法都直接交给被装饰的数据源，
+ * 被装饰的数据源实现IncrementalSource时使用IncrementalCubeAggregatable
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 02:00
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CubeAggregatable implements Aggregatable {
+
+    /**
+     * 被装饰的数据源
+     */
+    private final Aggregatable delegate;
+    /**
+     * 立方体的物化类
+     */
+    private final CubeMaterializer materializer;
+    /**
+     * 表名称，与物化时的立方体定义一致
+     */
+    private final String tableName;
+
+    /** constructor of CubeAggregatable
+     * @param delegate 被装饰的数据源
+     * @param materializer 立方体的物化类
+     * @param tableName 表名称
+     */
+    public CubeAggregatable(Aggregatable delegate, CubeMaterializer materializer, String tableName) {
+        this.delegate = delegate;
+        this.materializer = materializer;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public String[] queryDimVals(String columnName, AggConfig config) throws Exception {
+        return delegate.queryDimVals(columnName, config);
+    }
+
+    @Override
+    public String[] getColumn(boolean reload) throws Exception {
+        return delegate.getColumn(reload);
+    }
+
+    @Override
+    public AggregateResult queryAggData(AggConfig ac) throws Exception {
+        AggregateResult result = materializer.query(tableName, ac);
+        return result != null ? result : delegate.queryAggData(ac);
+    }
+
+    @Override
+    public String viewAggDataQuery(AggConfig ac) throws Exception {
+        return delegate.viewAggDataQuery(ac);
+    }
+
+    public Aggregatable getDelegate() {
+        return delegate;
+    }
+}
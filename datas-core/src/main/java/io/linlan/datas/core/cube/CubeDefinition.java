@@ -0,0 +1,95 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * Filename:CubeDefinition.java
+ * Desc: 上卷立方体的定义类，基础维度的明细聚合只计算一次，分组集合由其上卷得到，每个维度集合单独缓存
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 01:10
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CubeDefinition {
+
+    /**
+     * 表名称，与SqlHelper的表名称一致
+     */
+    private String tableName;
+    /**
+     * 基础维度的列名称
+     */
+    private List<String> dimensions = new ArrayList<>();
+    /**
+     * 数值指标的列名称，支持sum/avg/max/min
+     */
+    private List<String> measures = new ArrayList<>();
+    /**
+     * 去重指标的列名称，支持approx_distinct
+     */
+    private List<String> distinctColumns = new ArrayList<>();
+    /**
+     * 额外物化的分组集合，每个都是基础维度的子集
+     */
+    private List<List<String>> groupingSets = new ArrayList<>();
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public List<String> getDimensions() {
+        return dimensions;
+    }
+
+    public void setDimensions(List<String> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public List<String> getMeasures() {
+        return measures;
+    }
+
+    public void setMeasures(List<String> measures) {
+        this.measures = measures;
+    }
+
+    public List<String> getDistinctColumns() {
+        return distinctColumns;
+    }
+
+    public void setDistinctColumns(List<String> distinctColumns) {
+        this.distinctColumns = distinctColumns;
+    }
+
+    public List<List<String>> getGroupingSets() {
+        return groupingSets;
+    }
+
+    public void setGroupingSets(List<List<String>> groupingSets) {
+        this.groupingSets = groupingSets;
+    }
+}
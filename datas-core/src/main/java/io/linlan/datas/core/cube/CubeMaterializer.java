@@ -0,0 +1,197 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.commons.cache.CacheManager;
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.result.ColumnarAggregateResult;
+import io.linlan.datas.core.utils.ResultSetIterator;
+import io.linlan.datas.core.utils.StreamingAggregator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *
+ * Filename:CubeMaterializer.java
+ * Desc: 上卷立方体的物化类，按定义对明细数据只聚合一次得到基础立方体，再上卷出各个分组集合，
+ * 每个维度集合的立方体以表名称和维度集合为键保存到CacheManager；查询时在已物化的立方体中
+ * 选择覆盖聚合配置且分组最少的一个上卷得到结果，没有可用的立方体时返回null，由调用方执行SQL。
+ * 已物化的键和立方体的维度、指标、分组数登记在本实例中，判断是否覆盖时不需要读取缓存，
+ * 只读取选中的立方体，缓存过期或被淘汰的立方体在查询时自动移除登记
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 01:40
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class CubeMaterializer {
+
+    /**
+     * 立方体缓存键的前缀
+     */
+    public static final String KEY_PREFIX = "linlan:cube:";
+
+    /**
+     * 保存立方体的缓存
+     */
+    private final CacheManager<RollupCube> cacheManager;
+    /**
+     * 立方体的过期时间
+     */
+    private final long expire;
+    /**
+     * 每个表已物化的立方体，缓存键到立方体的登记信息
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, Registration>> registrations = new ConcurrentHashMap<>();
+
+    /** constructor of CubeMaterializer
+     * @param cacheManager 保存立方体的缓存，分布式缓存需要能序列化RollupCube
+     * @param expire 立方体的过期时间
+     */
+    public CubeMaterializer(CacheManager<RollupCube> cacheManager, long expire) {
+        this.cacheManager = cacheManager;
+        this.expire = expire;
+    }
+
+    /** 由明细行物化立方体，基础维度和每个分组集合各保存一个立方体
+     * @param definition 立方体定义
+     * @param columnNames 明细行的列名，不区分大小写
+     * @param rows 明细行的迭代器
+     * @return 基础维度的立方体
+     */
+    public RollupCube materialize(CubeDefinition definition, String[] columnNames, Iterator<String[]> rows) {
+        RollupCube base = RollupCube.build(definition, columnNames, rows);
+        store(definition.getTableName(), base);
+        for (List<String> groupingSet : definition.getGroupingSets()) {
+            store(definition.getTableName(), base.rollup(groupingSet));
+        }
+        return base;
+    }
+
+    /** 由明细查询流式物化立方体，列名取自ResultSetMetaData的列标签
+     * @param definition 立方体定义
+     * @param connection 数据库连接，不会被关闭
+     * @param sql 明细查询的SQL
+     * @param fetchSize 每次从数据库读取的行数，在执行前设置到语句上，0表示使用驱动的默认值
+     * @return 基础维度的立方体
+     * @throws SQLException 读取失败
+     */
+    public RollupCube materialize(CubeDefinition definition, Connection connection, String sql, int fetchSize) throws SQLException {
+        try (PreparedStatement statement = StreamingAggregator.prepareStatement(connection, sql, fetchSize)) {
+            return materialize(definition, statement);
+        }
+    }
+
+    /** 由明细查询的语句流式物化立方体，列名取自ResultSetMetaData的列标签
+     * @param definition 立方体定义
+     * @param statement 已绑定参数的明细查询语句，fetchSize需要已设置，例如由StreamingAggregator.prepareStatement创建，不会被关闭
+     * @return 基础维度的立方体
+     * @throws SQLException 读取失败
+     */
+    public RollupCube materialize(CubeDefinition definition, PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            String[] columnNames = ResultSetIterator.columnNames(rs);
+            return materialize(definition, columnNames, new ResultSetIterator(rs, columnNames.length));
+        } catch (IllegalStateException e) {
+            throw ResultSetIterator.unwrap(e);
+        }
+    }
+
+    /** 由已物化的立方体回答聚合配置
+     * @param tableName 表名称
+     * @param config 聚合配置
+     * @return 列式聚合结果，没有覆盖聚合配置的立方体时返回null
+     */
+    public ColumnarAggregateResult query(String tableName, AggConfig config) {
+        Map<String, Registration> registered = registrations.get(tableName);
+        if (registered == null) {
+            return null;
+        }
+        List<Registration> candidates = new ArrayList<>();
+        for (Registration registration : registered.values()) {
+            if (RollupCube.covers(registration.dimensions, registration.measures, registration.distinctColumns, config)) {
+                candidates.add(registration);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(e -> e.groupCount));
+        for (Registration candidate : candidates) {
+            RollupCube cube = cacheManager.get(candidate.key);
+            if (cube != null) {
+                return cube.query(config);
+            }
+            registered.remove(candidate.key, candidate);
+        }
+        return null;
+    }
+
+    /** 移除表的全部立方体，明细数据变化后调用
+     * @param tableName 表名称
+     */
+    public void invalidate(String tableName) {
+        Map<String, Registration> registered = registrations.remove(tableName);
+        if (registered != null) {
+            cacheManager.removeAll(registered.keySet());
+        }
+    }
+
+    /** 获取立方体的缓存键，维度按字母排序，与维度的顺序无关
+     * @param tableName 表名称
+     * @param cube 立方体
+     * @return 缓存键
+     */
+    public static String keyOf(String tableName, RollupCube cube) {
+        return KEY_PREFIX + tableName + ":" + String.join(",", new TreeSet<>(cube.getDimensions()))
+                + ":" + String.join(",", cube.getMeasures()) + ":" + String.join(",", cube.getDistinctColumns());
+    }
+
+    private void store(String tableName, RollupCube cube) {
+        String key = keyOf(tableName, cube);
+        cacheManager.put(key, cube, expire);
+        registrations.computeIfAbsent(tableName, t -> new ConcurrentHashMap<>()).put(key, new Registration(key, cube));
+    }
+
+    /**
+     * 立方体的登记信息，不包括中间结果
+     */
+    private static class Registration {
+        private final String key;
+        private final String[] dimensions;
+        private final String[] measures;
+        private final String[] distinctColumns;
+        private final int groupCount;
+
+        Registration(String key, RollupCube cube) {
+            this.key = key;
+            this.dimensions = cube.dimensionArray();
+            this.measures = cube.measureArray();
+            this.distinctColumns = cube.distinctColumnArray();
+            this.groupCount = cube.getGroupCount();
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.commons.cache.CacheManager;
+import io.linlan.datas.core.abs.Aggregatable;
+import io.linlan.datas.core.abs.IncrementalSource;
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.CompositeConfig;
+import io.linlan.datas.core.provider.config.ConfigComponent;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.AggregateResult;
+import io.linlan.datas.core.utils.DataProviderUtils;
+import io.linlan.datas.core.utils.HashGroupBy;
+import io.linlan.datas.core.utils.ResultFunctions;
+
+import java.io.Serializable;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ *
+ * Filename:IncrementalAggregatable.java
+ * Desc: 增量刷新的聚合装饰类，用于只追加的事实表：首次查询时聚合全部明细行，之后每次只流式读取水位之后追加的明细行，
+ * 聚合为部分结果后按AggregateCollector的combiner语义合并到缓存的中间结果中，
+ * sum/count/min/max/avg直接合并，distinct合并集合，approx_distinct合并DistinctCounter，指标的null与SQL一致被忽略。
+ * 被装饰的数据源需要实现IncrementalSource，水位列在追加的数据上递增，例如自增主键或者提交时间。
+ * 多个事务并发写入时水位较小的行可能较晚提交，每次刷新会重新读取最大水位之前overlap范围内的行，
+ * 并按重叠窗口内已聚合的明细行去重，overlap需要大于最长的事务时间，晚于窗口提交的行不会被聚合
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 02:40
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class IncrementalAggregatable implements Aggregatable, IncrementalSource {
+
+    /**
+     * 增量状态缓存键的前缀
+     */
+    public static final String KEY_PREFIX = "linlan:incremental:";
+
+    /**
+     * 刷新锁的个数，缓存键按哈希值分配到固定个数的锁上
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 水位的顺序，与compare一致，需要能随增量状态序列化
+     */
+    private static final Comparator<String> WATERMARK_ORDER = new WatermarkOrder();
+
+    /**
+     * 被装饰的数据源
+     */
+    private final Aggregatable delegate;
+    /**
+     * 被装饰的数据源的明细行来源
+     */
+    private final IncrementalSource source;
+    /**
+     * 保存增量状态的缓存
+     */
+    private final CacheManager<IncrementalState> cacheManager;
+    /**
+     * 水位列
+     */
+    private final String watermarkColumn;
+    /**
+     * 增量状态的过期时间
+     */
+    private final long expire;
+    /**
+     * 重叠窗口，数字水位为列的单位，日期和时间水位为毫秒，0表示只重新读取等于最大水位的行
+     */
+    private final long overlap;
+    /**
+     * 刷新锁，同一个配置的刷新不能并发，否则追加的行会被合并两次
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /** constructor of IncrementalAggregatable, without overlap window
+     * @param delegate 被装饰的数据源
+     * @param cacheManager 保存增量状态的缓存，分布式缓存需要能序列化IncrementalState
+     * @param watermarkColumn 水位列
+     * @param expire 增量状态的过期时间，过期后重新全量聚合
+     */
+    public <T extends Aggregatable & IncrementalSource> IncrementalAggregatable(T delegate, CacheManager<IncrementalState> cacheManager,
+                                                                                String watermarkColumn, long expire) {
+        this(delegate, cacheManager, watermarkColumn, expire, 0);
+    }
+
+    /** constructor of IncrementalAggregatable
+     * @param delegate 被装饰的数据源
+     * @param cacheManager 保存增量状态的缓存，分布式缓存需要能序列化IncrementalState
+     * @param watermarkColumn 水位列
+     * @param expire 增量状态的过期时间，过期后重新全量聚合
+     * @param overlap 重叠窗口，数字水位为列的单位，日期和时间水位为毫秒
+     */
+    public <T extends Aggregatable & IncrementalSource> IncrementalAggregatable(T delegate, CacheManager<IncrementalState> cacheManager,
+                                                                                String watermarkColumn, long expire, long overlap) {
+        if (overlap < 0) {
+            throw new IllegalArgumentException("overlap must not be negative: " + overlap);
+        }
+        this.delegate = delegate;
+        this.source = delegate;
+        this.cacheManager = cacheManager;
+        this.watermarkColumn = watermarkColumn;
+        this.expire = expire;
+        this.overlap = overlap;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public String[] queryDimVals(String columnName, AggConfig config) throws Exception {
+        return delegate.queryDimVals(columnName, config);
+    }
+
+    @Override
+    public String[] getColumn(boolean reload) throws Exception {
+        return delegate.getColumn(reload);
+    }
+
+    /** 增量刷新聚合配置的结果
+     * @param ac 聚合配置
+     * @return 列式聚合结果
+     * @throws Exception 查询明细行失败
+     */
+    @Override
+    public AggregateResult queryAggData(AggConfig ac) throws Exception {
+        String key = keyOf(ac);
+        synchronized (locks[(key.hashCode() & Integer.MAX_VALUE) % locks.length]) {
+            IncrementalState state = refresh(ac, cacheManager.get(key));
+            cacheManager.put(key, state, expire);
+            return state.getGroupBy().toResult(DataProviderUtils.getColumnList(ac));
+        }
+    }
+
+    @Override
+    public void queryAppendedRows(AggConfig ac, String watermarkColumn, String from, RowsHandler handler) throws Exception {
+        source.queryAppendedRows(ac, watermarkColumn, from, handler);
+    }
+
+    @Override
+    public String viewAggDataQuery(AggConfig ac) throws Exception {
+        return delegate.viewAggDataQuery(ac);
+    }
+
+    /** 移除聚合配置的增量状态，下次查询时重新全量聚合，明细数据被修改或删除后调用
+     * @param ac 聚合配置
+     */
+    public void invalidate(AggConfig ac) {
+        cacheManager.remove(keyOf(ac));
+    }
+
+    /** 获取聚合配置的缓存键，包括维度、过滤条件和值
+     * @param ac 聚合配置
+     * @return 缓存键
+     */
+    public String keyOf(AggConfig ac) {
+        StringBuilder key = new StringBuilder(KEY_PREFIX).append(watermarkColumn).append(':');
+        describe(ac.getColumns(), key.append("c["));
+        describe(ac.getRows(), key.append("]r["));
+        describe(ac.getFilters(), key.append("]f["));
+        key.append("]v[");
+        for (ValueConfig value : ac.getValues()) {
+            key.append(value.getAggType()).append('(').append(value.getColumn()).append("),");
+        }
+        return key.append(']').toString();
+    }
+
+    public Aggregatable getDelegate() {
+        return delegate;
+    }
+
+    private IncrementalState refresh(AggConfig ac, IncrementalState state) throws Exception {
+        Refresh refresh = new Refresh(ac, state);
+        source.queryAppendedRows(ac, watermarkColumn, state == null ? null : lowerBound(state.getWatermark()), refresh);
+        if (refresh.restart) {
+            refresh = new Refresh(ac, null);
+            source.queryAppendedRows(ac, watermarkColumn, null, refresh);
+        }
+        if (refresh.result == null) {
+            throw new IllegalStateException("the rows handler is not called by " + source.getClass().getName());
+        }
+        return refresh.result;
+    }
+
+    /**
+     * 一次刷新，聚合读取到的明细行，跳过重叠窗口内已聚合的行，并记录新的重叠窗口内的行
+     */
+    private final class Refresh implements RowsHandler {
+        private final AggConfig ac;
+        private final IncrementalState state;
+        private IncrementalState result;
+        /**
+         * 明细列发生变化，或者缓存的状态按0处理null，需要重新全量聚合
+         */
+        private boolean restart;
+
+        private Refresh(AggConfig ac, IncrementalState state) {
+            this.ac = ac;
+            this.state = state;
+        }
+
+        @Override
+        public void handle(String[] columnNames, Iterator<String[]> rows) {
+            if (state != null && (!Arrays.equals(columnNames, state.getColumnNames()) || !state.getGroupBy().isIgnoreNulls())) {
+                restart = true;
+                return;
+            }
+            int watermarkPosition = positionOf(columnNames, watermarkColumn);
+            HashGroupBy delta = HashGroupBy.of(ac, columnNames, true);
+            Predicate<String[]> filter = HashGroupBy.filterOf(ac, columnNames);
+            TreeMap<String, Map<List<String>, Integer>> seen = copyOf(state == null ? null : state.getBoundaryRows());
+            TreeMap<String, Map<List<String>, Integer>> boundary = new TreeMap<>(WATERMARK_ORDER);
+            String watermark = state == null ? null : state.getWatermark();
+            String from = lowerBound(watermark);
+            long count = 0;
+            while (rows.hasNext()) {
+                String[] row = rows.next();
+                String value = row[watermarkPosition];
+                if (value != null) {
+                    if (watermark == null || compare(value, watermark) > 0) {
+                        watermark = value;
+                        from = lowerBound(value);
+                        boundary.headMap(from).clear();
+                    }
+                    List<String> key = null;
+                    if (compare(value, from) >= 0) {
+                        key = Arrays.asList(row.clone());
+                        boundary.computeIfAbsent(value, k -> new HashMap<>()).merge(key, 1, Integer::sum);
+                    }
+                    Map<List<String>, Integer> aggregated = seen.get(value);
+                    if (aggregated != null) {
+                        if (key == null) {
+                            key = Arrays.asList(row.clone());
+                        }
+                        Integer times = aggregated.remove(key);
+                        if (times != null) {
+                            if (times > 1) {
+                                aggregated.put(key, times - 1);
+                            }
+                            continue;
+                        }
+                    }
+                }
+                if (filter.test(row)) {
+                    delta.add(row);
+                }
+                count++;
+            }
+            if (state == null) {
+                result = new IncrementalState(delta, columnNames, watermark, boundary, count);
+            } else {
+                state.getGroupBy().merge(delta);
+                result = new IncrementalState(state.getGroupBy(), columnNames, watermark, boundary, state.getRowCount() + count);
+            }
+        }
+    }
+
+    private static TreeMap<String, Map<List<String>, Integer>> copyOf(TreeMap<String, Map<List<String>, Integer>> rows) {
+        TreeMap<String, Map<List<String>, Integer>> copy = new TreeMap<>(WATERMARK_ORDER);
+        if (rows != null) {
+            rows.forEach((k, v) -> copy.put(k, new HashMap<>(v)));
+        }
+        return copy;
+    }
+
+    /**
+     * 重叠窗口的下界，数字水位减去overlap，日期和时间水位减去overlap毫秒
+     */
+    private String lowerBound(String watermark) {
+        if (watermark == null || overlap == 0) {
+            return watermark;
+        }
+        try {
+            return Long.toString(Long.parseLong(watermark) - overlap);
+        } catch (NumberFormatException e) {
+            // not an integer
+        }
+        double number = ResultFunctions.parseDouble(watermark, Double.NaN);
+        if (!Double.isNaN(number)) {
+            return Double.toString(number - overlap);
+        }
+        Timestamp timestamp = timestampOf(watermark);
+        if (timestamp == null) {
+            throw new IllegalArgumentException("the overlap needs a numeric, date or timestamp watermark: " + watermark);
+        }
+        long time = timestamp.getTime() - overlap;
+        return watermark.length() == 10 ? new Date(time).toString() : new Timestamp(time).toString();
+    }
+
+    private static void describe(List<? extends ConfigComponent> components, StringBuilder key) {
+        if (components == null) {
+            return;
+        }
+        for (ConfigComponent cc : components) {
+            if (cc instanceof DimensionConfig) {
+                DimensionConfig config = (DimensionConfig) cc;
+                key.append(config.getColumnName()).append(' ').append(config.getFilterType())
+                        .append(' ').append(config.getValues()).append(',');
+            } else if (cc instanceof CompositeConfig) {
+                CompositeConfig config = (CompositeConfig) cc;
+                describe(config.getConfigComponents(), key.append(config.getType()).append('('));
+                key.append("),");
+            }
+        }
+    }
+
+    private static int positionOf(String[] columnNames, String name) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("the watermark column is not found: " + name + ", columns: " + Arrays.toString(columnNames));
+    }
+
+    /**
+     * 两边都是数字时按数值比较，都是日期或时间时按时间比较，否则按字符串比较
+     */
+    private static int compare(String a, String b) {
+        double x = ResultFunctions.parseDouble(a, Double.NaN);
+        double y = ResultFunctions.parseDouble(b, Double.NaN);
+        if (!Double.isNaN(x) && !Double.isNaN(y)) {
+            return Double.compare(x, y);
+        }
+        Timestamp s = timestampOf(a);
+        Timestamp t = s == null ? null : timestampOf(b);
+        if (t != null) {
+            return s.compareTo(t);
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * 解析yyyy-mm-dd格式的日期或yyyy-mm-dd hh:mm:ss[.f]格式的时间，不是日期或时间时返回null
+     */
+    private static Timestamp timestampOf(String value) {
+        if (value.length() < 10 || value.charAt(4) != '-') {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? new Timestamp(Date.valueOf(value).getTime()) : Timestamp.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class WatermarkOrder implements Comparator<String>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(String a, String b) {
+            return IncrementalAggregatable.compare(a, b);
+        }
+    }
+}
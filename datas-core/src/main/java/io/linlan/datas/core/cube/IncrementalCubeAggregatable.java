@@ -0,0 +1,56 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.datas.core.abs.Aggregatable;
+import io.linlan.datas.core.abs.IncrementalSource;
+import io.linlan.datas.core.provider.config.AggConfig;
+
+/**
+ *
+ * Filename:IncrementalCubeAggregatable.java
+ * Desc: 被装饰的数据源支持增量刷新时使用的上卷立方体聚合装饰类，聚合与CubeAggregatable一致，
+ * 明细行的增量查询交给被装饰的数据源，可以再由IncrementalAggregatable装饰
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 10:30
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class IncrementalCubeAggregatable extends CubeAggregatable implements IncrementalSource {
+
+    /**
+     * 被装饰的数据源的明细行来源
+     */
+    private final IncrementalSource source;
+
+    /** constructor of IncrementalCubeAggregatable
+     * @param delegate 被装饰的数据源
+     * @param materializer 立方体的物化类
+     * @param tableName 表名称
+     */
+    public <T extends Aggregatable & IncrementalSource> IncrementalCubeAggregatable(T delegate, CubeMaterializer materializer, String tableName) {
+        super(delegate, materializer, tableName);
+        this.source = delegate;
+    }
+
+    @Override
+    public void queryAppendedRows(AggConfig ac, String watermarkColumn, String from, RowsHandler handler) throws Exception {
+        source.queryAppendedRows(ac, watermarkColumn, from, handler);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.datas.core.utils.HashGroupBy;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ *
+ * Filename:IncrementalState.java
+ * Desc: 增量聚合的缓存状态类，保存可合并的分组中间结果、已聚合到的水位、明细列的名称，
+ * 以及重叠窗口内已聚合的明细行，重新读取重叠窗口时用于去重
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 02:30
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class IncrementalState implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分组中间结果
+     */
+    private final HashGroupBy groupBy;
+    /**
+     * 明细列的名称，列的位置变化后需要重新全量聚合
+     */
+    private final String[] columnNames;
+    /**
+     * 已聚合的明细行的最大水位，null表示还没有明细行
+     */
+    private final String watermark;
+    /**
+     * 重叠窗口内已聚合的明细行，按水位排序，每个水位下为明细行与其出现次数
+     */
+    private final TreeMap<String, Map<List<String>, Integer>> boundaryRows;
+    /**
+     * 已聚合的明细行数
+     */
+    private final long rowCount;
+
+    /** constructor of IncrementalState
+     * @param groupBy 分组中间结果
+     * @param columnNames 明细列的名称
+     * @param watermark 已聚合到的水位
+     * @param boundaryRows 重叠窗口内已聚合的明细行
+     * @param rowCount 已聚合的明细行数
+     */
+    public IncrementalState(HashGroupBy groupBy, String[] columnNames, String watermark,
+                            TreeMap<String, Map<List<String>, Integer>> boundaryRows, long rowCount) {
+        this.groupBy = groupBy;
+        this.columnNames = columnNames;
+        this.watermark = watermark;
+        this.boundaryRows = boundaryRows;
+        this.rowCount = rowCount;
+    }
+
+    public HashGroupBy getGroupBy() {
+        return groupBy;
+    }
+
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public TreeMap<String, Map<List<String>, Integer>> getBoundaryRows() {
+        return boundaryRows;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+}
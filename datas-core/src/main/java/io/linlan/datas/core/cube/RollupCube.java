@@ -0,0 +1,299 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.CompositeConfig;
+import io.linlan.datas.core.provider.config.ConfigComponent;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.ColumnIndex;
+import io.linlan.datas.core.provider.result.ColumnarAggregateResult;
+import io.linlan.datas.core.provider.result.ResultColumn;
+import io.linlan.datas.core.utils.DataProviderUtils;
+import io.linlan.datas.core.utils.HashGroupBy;
+import io.linlan.datas.core.utils.RowFilter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ *
+ * Filename:RollupCube.java
+ * Desc: 上卷立方体类，保存按一组维度聚合的可合并中间结果：每个数值指标的sum/avg/max/min和非null计数、行数、
+ * 去重指标的DistinctCounter以及每个维度的非null计数，维度和过滤条件都在立方体维度之内、指标都已物化的聚合配置
+ * 可以由立方体上卷得到结果，不需要执行SQL，null的语义与SQL一致：不参与sum/avg/max/min，count只计数非null的值
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 01:20
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class RollupCube implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每个数值指标物化的聚合类型，依次占用指标槽位
+     */
+    private static final String[] MEASURE_AGG_TYPES = {"sum", "avg", "max", "min", "count"};
+
+    /**
+     * 维度的列名称，大写
+     */
+    private final String[] dimensions;
+    /**
+     * 数值指标的列名称，大写
+     */
+    private final String[] measures;
+    /**
+     * 去重指标的列名称，大写
+     */
+    private final String[] distinctColumns;
+    /**
+     * 按维度分组的中间结果
+     */
+    private final HashGroupBy groupBy;
+    /**
+     * 聚合的明细行数
+     */
+    private final long rowCount;
+
+    private RollupCube(String[] dimensions, String[] measures, String[] distinctColumns, HashGroupBy groupBy, long rowCount) {
+        this.dimensions = dimensions;
+        this.measures = measures;
+        this.distinctColumns = distinctColumns;
+        this.groupBy = groupBy;
+        this.rowCount = rowCount;
+    }
+
+    /** 由明细行构建基础维度的立方体
+     * @param definition 立方体定义
+     * @param columnNames 明细行的列名，不区分大小写
+     * @param rows 明细行的迭代器，行数组不被保留
+     * @return 立方体
+     */
+    public static RollupCube build(CubeDefinition definition, String[] columnNames, Iterator<String[]> rows) {
+        String[] names = upperCase(Arrays.asList(columnNames));
+        String[] dimensions = upperCase(definition.getDimensions());
+        String[] measures = upperCase(definition.getMeasures());
+        String[] distinctColumns = upperCase(definition.getDistinctColumns());
+        int[] dimensionColumns = new int[dimensions.length];
+        for (int d = 0; d < dimensions.length; d++) {
+            dimensionColumns[d] = positionOf(names, dimensions[d]);
+        }
+        List<ColumnIndex> valueList = new ArrayList<>();
+        for (String measure : measures) {
+            for (String aggType : MEASURE_AGG_TYPES) {
+                valueList.add(valueOf(measure, aggType, positionOf(names, measure)));
+            }
+        }
+        valueList.add(valueOf(null, "count", -1));
+        for (String distinctColumn : distinctColumns) {
+            valueList.add(valueOf(distinctColumn, "approx_distinct", positionOf(names, distinctColumn)));
+        }
+        for (int d = 0; d < dimensions.length; d++) {
+            valueList.add(valueOf(dimensions[d], "count", dimensionColumns[d]));
+        }
+        HashGroupBy groupBy = new HashGroupBy(dimensionColumns, valueList, true);
+        long rowCount = 0;
+        while (rows.hasNext()) {
+            groupBy.add(rows.next());
+            rowCount++;
+        }
+        return new RollupCube(dimensions, measures, distinctColumns, groupBy, rowCount);
+    }
+
+    /** 上卷到部分维度，得到更小的立方体
+     * @param dimensions 保留的维度，必须是当前维度的子集
+     * @return 上卷后的立方体
+     */
+    public RollupCube rollup(List<String> dimensions) {
+        String[] rollupDimensions = upperCase(dimensions);
+        int[] kept = new int[rollupDimensions.length];
+        for (int d = 0; d < kept.length; d++) {
+            kept[d] = positionOf(this.dimensions, rollupDimensions[d]);
+        }
+        return new RollupCube(rollupDimensions, measures, distinctColumns, groupBy.rollup(kept, null), rowCount);
+    }
+
+    /** 判断聚合配置能否由立方体上卷得到
+     * @param config 聚合配置
+     * @return 维度、过滤条件和指标都在立方体之内时返回true
+     */
+    public boolean covers(AggConfig config) {
+        return covers(dimensions, measures, distinctColumns, config);
+    }
+
+    static boolean covers(String[] dimensions, String[] measures, String[] distinctColumns, AggConfig config) {
+        boolean dimensionsCovered = Stream.concat(config.getColumns().stream(), config.getRows().stream())
+                .allMatch(e -> indexOf(dimensions, e.getColumnName()) >= 0);
+        if (!dimensionsCovered) {
+            return false;
+        }
+        List<ConfigComponent> filters = config.getFilters() == null ? Collections.emptyList() : config.getFilters();
+        for (ConfigComponent filter : filters) {
+            if (!coversFilter(dimensions, filter)) {
+                return false;
+            }
+        }
+        for (ValueConfig value : config.getValues()) {
+            if (slotOf(dimensions, measures, distinctColumns, value) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 由立方体上卷得到聚合配置的结果，列与执行assembleAggDataSql的结果一致
+     * @param config 聚合配置，必须被立方体覆盖
+     * @return 列式聚合结果
+     */
+    public ColumnarAggregateResult query(AggConfig config) {
+        if (!covers(config)) {
+            throw new IllegalArgumentException("the config is not covered by the cube of " + Arrays.toString(dimensions));
+        }
+        int[] kept = Stream.concat(config.getColumns().stream(), config.getRows().stream())
+                .mapToInt(e -> indexOf(dimensions, e.getColumnName()))
+                .toArray();
+        Stream<DimensionConfig> c = config.getColumns().stream();
+        Stream<DimensionConfig> r = config.getRows().stream();
+        Stream<ConfigComponent> f = config.getFilters() == null ? Stream.empty() : config.getFilters().stream();
+        HashGroupBy rollup = groupBy.rollup(kept, RowFilter.of(Stream.concat(Stream.concat(c, r), f), e -> indexOf(dimensions, e)));
+        ResultColumn[] cells = rollup.toResult(null).getColumns();
+        ResultColumn[] columns = new ResultColumn[kept.length + config.getValues().size()];
+        System.arraycopy(cells, 0, columns, 0, kept.length);
+        for (int i = 0; i < config.getValues().size(); i++) {
+            columns[kept.length + i] = cells[kept.length + slotOf(dimensions, measures, distinctColumns, config.getValues().get(i))];
+        }
+        return new ColumnarAggregateResult(DataProviderUtils.getColumnList(config), columns);
+    }
+
+    String[] dimensionArray() {
+        return dimensions;
+    }
+
+    String[] measureArray() {
+        return measures;
+    }
+
+    String[] distinctColumnArray() {
+        return distinctColumns;
+    }
+
+    public List<String> getDimensions() {
+        return Collections.unmodifiableList(Arrays.asList(dimensions));
+    }
+
+    public List<String> getMeasures() {
+        return Collections.unmodifiableList(Arrays.asList(measures));
+    }
+
+    public List<String> getDistinctColumns() {
+        return Collections.unmodifiableList(Arrays.asList(distinctColumns));
+    }
+
+    /** 获取立方体的分组数
+     * @return 分组数
+     */
+    public int getGroupCount() {
+        return groupBy.getGroupCount();
+    }
+
+    /** 获取聚合的明细行数
+     * @return 明细行数
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private static boolean coversFilter(String[] dimensions, ConfigComponent cc) {
+        if (cc instanceof DimensionConfig) {
+            DimensionConfig config = (DimensionConfig) cc;
+            return config.getValues() == null || config.getValues().isEmpty() || indexOf(dimensions, config.getColumnName()) >= 0;
+        } else if (cc instanceof CompositeConfig) {
+            return ((CompositeConfig) cc).getConfigComponents().stream().allMatch(e -> coversFilter(dimensions, e));
+        }
+        return true;
+    }
+
+    /**
+     * 指标在中间结果中的槽位，未物化时返回-1，其他聚合类型与SqlSyntaxHelper一致按count处理，
+     * 没有列或列为*的count为行数，维度列的count为维度的非null计数
+     */
+    private static int slotOf(String[] dimensions, String[] measures, String[] distinctColumns, ValueConfig value) {
+        String aggType = value.getAggType();
+        int rowCountSlot = measures.length * MEASURE_AGG_TYPES.length;
+        if ("approx_distinct".equals(aggType)) {
+            int d = indexOf(distinctColumns, value.getColumn());
+            return d < 0 ? -1 : rowCountSlot + 1 + d;
+        }
+        if ("distinct".equals(aggType)) {
+            return -1;
+        }
+        int m = indexOf(measures, value.getColumn());
+        for (int i = 0; i < MEASURE_AGG_TYPES.length - 1; i++) {
+            if (MEASURE_AGG_TYPES[i].equals(aggType)) {
+                return m < 0 ? -1 : m * MEASURE_AGG_TYPES.length + i;
+            }
+        }
+        if (m >= 0) {
+            return m * MEASURE_AGG_TYPES.length + MEASURE_AGG_TYPES.length - 1;
+        }
+        if (value.getColumn() == null || "*".equals(value.getColumn())) {
+            return rowCountSlot;
+        }
+        int d = indexOf(dimensions, value.getColumn());
+        return d < 0 ? -1 : rowCountSlot + 1 + distinctColumns.length + d;
+    }
+
+    private static ColumnIndex valueOf(String name, String aggType, int index) {
+        ColumnIndex columnIndex = new ColumnIndex();
+        columnIndex.setName(name);
+        columnIndex.setAggType(aggType);
+        columnIndex.setIndex(index);
+        return columnIndex;
+    }
+
+    private static String[] upperCase(List<String> names) {
+        return names.stream().map(String::toUpperCase).toArray(String[]::new);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        if (name != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int positionOf(String[] names, String name) {
+        int position = indexOf(names, name);
+        if (position < 0) {
+            throw new IllegalArgumentException("the column is not found: " + name + ", columns: " + Arrays.toString(names));
+        }
+        return position;
+    }
+}
@@ -33,7 +33,7 @@ public class ValueConfig {
      */
     private String column;
     /**
-     * 聚合查询类型，包括SUM/MIN/MAX/AVG/COUNT/DISTINCT
+     * 聚合查询类型，包括SUM/MIN/MAX/AVG/COUNT/DISTINCT/APPROX_DISTINCT，APPROX_DISTINCT在内存中为近似去重计数
      */
     private String aggType;
 
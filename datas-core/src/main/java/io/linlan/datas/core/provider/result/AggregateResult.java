@@ -15,6 +15,7 @@
  */
 package io.linlan.datas.core.provider.result;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -29,7 +30,9 @@ import java.util.List;
  * @since 1.0
  *
  */
-public class AggregateResult {
+public class AggregateResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * 列信息结果数组
      */
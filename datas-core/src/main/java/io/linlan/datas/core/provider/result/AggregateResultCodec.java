@@ -0,0 +1,94 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import io.linlan.commons.cache.CacheBuffer;
+import io.linlan.commons.cache.CacheCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * Filename:AggregateResultCodec.java
+ * Desc: 聚合返回结果的缓存编解码类，按列信息和数据表逐字段写入，不经过hessian的对象图遍历，
+ * 通过META-INF/services注册到缓存的CodecSerializer
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 18:50
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class AggregateResultCodec implements CacheCodec<AggregateResult> {
+
+    /**
+     * 编解码标识，存储后不可修改
+     */
+    public static final int TAG = 16;
+
+    @Override
+    public int getTag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<AggregateResult> getType() {
+        return AggregateResult.class;
+    }
+
+    @Override
+    public void write(AggregateResult value, CacheBuffer buffer) {
+        writeColumnList(value.getColumnList(), buffer);
+        buffer.writeStringTable(value.getData());
+    }
+
+    @Override
+    public AggregateResult read(CacheBuffer buffer) {
+        List<ColumnIndex> columnList = readColumnList(buffer);
+        return new AggregateResult(columnList, buffer.readStringTable());
+    }
+
+    static void writeColumnList(List<ColumnIndex> columnList, CacheBuffer buffer) {
+        if (columnList == null) {
+            buffer.writeLength(-1);
+        } else {
+            buffer.writeLength(columnList.size());
+            for (ColumnIndex column : columnList) {
+                buffer.writeVarInt(column.getIndex());
+                buffer.writeString(column.getAggType());
+                buffer.writeString(column.getName());
+            }
+        }
+    }
+
+    static List<ColumnIndex> readColumnList(CacheBuffer buffer) {
+        int columns = buffer.readLength(3);
+        List<ColumnIndex> columnList = null;
+        if (columns >= 0) {
+            columnList = new ArrayList<>(columns);
+            for (int i = 0; i < columns; i++) {
+                ColumnIndex column = new ColumnIndex();
+                column.setIndex(buffer.readVarInt());
+                column.setAggType(buffer.readString());
+                column.setName(buffer.readString());
+                columnList.add(column);
+            }
+        }
+        return columnList;
+    }
+}
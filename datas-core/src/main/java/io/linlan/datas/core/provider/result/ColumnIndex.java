@@ -18,6 +18,8 @@ package io.linlan.datas.core.provider.result;
 import io.linlan.datas.core.provider.config.DimensionConfig;
 import io.linlan.datas.core.provider.config.ValueConfig;
 
+import java.io.Serializable;
+
 /**
  *
  * Filename:ColumnIndex.java
@@ -30,14 +32,15 @@ import io.linlan.datas.core.provider.config.ValueConfig;
  * @since 1.0
  *
  */
-public class ColumnIndex {
+public class ColumnIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /**
      * 结果序号
      */
     private int index;
     /**
-     * 聚合类型，包括SUM/MIN/MAX/AVG/COUNT/DISTINCT
+     * 聚合类型，包括SUM/MIN/MAX/AVG/COUNT/DISTINCT/APPROX_DISTINCT
      */
     private String aggType;
     /**
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import java.util.List;
+
+/**
+ *
+ * Filename:ColumnarAggregateResult.java
+ * Desc: 列式聚合返回结果类，维度列按字典编码，指标列保存为double数组和空值位图，
+ * 与String[][]之间的转换都是延迟进行的：由数据表构造时首次按列访问才编码，
+ * 由列构造时首次调用getData才生成数据表，调用compact释放数据表只保留列
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 20:20
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ColumnarAggregateResult extends AggregateResult {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 列数据，与列信息一一对应，未编码时为null
+     */
+    private ResultColumn[] columns;
+
+    /** constructor of ColumnarAggregateResult，由数据表构造，首次按列访问时编码
+     * @param columnList 列信息
+     * @param data 数据表
+     */
+    public ColumnarAggregateResult(List<ColumnIndex> columnList, String[][] data) {
+        super(columnList, data);
+    }
+
+    /** constructor of ColumnarAggregateResult，由列构造，首次调用getData时生成数据表
+     * @param columnList 列信息
+     * @param columns 列数据，行数必须一致
+     */
+    public ColumnarAggregateResult(List<ColumnIndex> columnList, ResultColumn[] columns) {
+        super(columnList, null);
+        for (ResultColumn column : columns) {
+            if (column.size() != columns[0].size()) {
+                throw new IllegalArgumentException("the columns have different rows: " + column.size() + ", " + columns[0].size());
+            }
+        }
+        this.columns = columns;
+    }
+
+    /**
+     * constructor of ColumnarAggregateResult
+     */
+    public ColumnarAggregateResult() {
+    }
+
+    /** 将聚合结果转换为列式结果，已经是列式结果时直接返回
+     * @param result 聚合结果
+     * @return 列式聚合结果
+     */
+    public static ColumnarAggregateResult of(AggregateResult result) {
+        if (result instanceof ColumnarAggregateResult) {
+            return (ColumnarAggregateResult) result;
+        }
+        return new ColumnarAggregateResult(result.getColumnList(), result.getData());
+    }
+
+    /** 获取行数
+     * @return 行数
+     */
+    public synchronized int getRowCount() {
+        if (columns != null) {
+            return columns.length == 0 ? 0 : columns[0].size();
+        }
+        String[][] data = super.getData();
+        return data == null ? 0 : data.length;
+    }
+
+    /** 获取列数据，需要时先对数据表编码
+     * @return 列数据
+     */
+    public synchronized ResultColumn[] getColumns() {
+        if (columns == null) {
+            columns = encode(getColumnList(), super.getData());
+        }
+        return columns;
+    }
+
+    /** 获取一列数据
+     * @param column 列号
+     * @return 指标列为数值列，其它为字典编码列
+     */
+    public ResultColumn getColumn(int column) {
+        return getColumns()[column];
+    }
+
+    /** 释放数据表，只保留列数据，之后的getData会重新生成数据表
+     * @return 当前结果
+     */
+    public synchronized ColumnarAggregateResult compact() {
+        getColumns();
+        super.setData(null);
+        return this;
+    }
+
+    /** 获取数据表，由列构造时首次调用生成并保留
+     * @return 数据表
+     */
+    @Override
+    public synchronized String[][] getData() {
+        String[][] data = super.getData();
+        if (data == null && columns != null) {
+            data = decode(columns);
+            super.setData(data);
+        }
+        return data;
+    }
+
+    /** 设置数据表，已编码的列数据失效
+     * @param data 数据表
+     */
+    @Override
+    public synchronized void setData(String[][] data) {
+        super.setData(data);
+        columns = null;
+    }
+
+    private static ResultColumn[] encode(List<ColumnIndex> columnList, String[][] data) {
+        if (data == null) {
+            data = new String[0][];
+        }
+        int width = columnList != null ? columnList.size() : data.length > 0 ? data[0].length : 0;
+        ResultColumn[] columns = new ResultColumn[width];
+        for (int i = 0; i < width; i++) {
+            ResultColumn column = null;
+            if (columnList != null && columnList.get(i).getAggType() != null) {
+                column = MeasureColumn.encode(data, i);
+            }
+            columns[i] = column != null ? column : DictionaryColumn.encode(data, i);
+        }
+        return columns;
+    }
+
+    private static String[][] decode(ResultColumn[] columns) {
+        int rows = columns.length == 0 ? 0 : columns[0].size();
+        String[][] data = new String[rows][columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            ResultColumn column = columns[j];
+            for (int i = 0; i < rows; i++) {
+                data[i][j] = column.getString(i);
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import io.linlan.commons.cache.CacheBuffer;
+import io.linlan.commons.cache.CacheCodec;
+
+import java.util.List;
+
+/**
+ *
+ * Filename:ColumnarAggregateResultCodec.java
+ * Desc: 列式聚合返回结果的缓存编解码类，直接写入字典、编号、double数组和空值位图，
+ * 缓存读取后仍然是列式结果，不需要重新编码，通过META-INF/services注册到缓存的CodecSerializer
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 20:40
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ColumnarAggregateResultCodec implements CacheCodec<ColumnarAggregateResult> {
+
+    /**
+     * 编解码标识，存储后不可修改
+     */
+    public static final int TAG = 17;
+
+    private static final int DICTIONARY = 0;
+    private static final int MEASURE = 1;
+
+    @Override
+    public int getTag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<ColumnarAggregateResult> getType() {
+        return ColumnarAggregateResult.class;
+    }
+
+    @Override
+    public void write(ColumnarAggregateResult value, CacheBuffer buffer) {
+        AggregateResultCodec.writeColumnList(value.getColumnList(), buffer);
+        ResultColumn[] columns = value.getColumns();
+        buffer.writeLength(columns.length);
+        buffer.writeLength(value.getRowCount());
+        for (ResultColumn column : columns) {
+            if (column instanceof MeasureColumn) {
+                MeasureColumn measure = (MeasureColumn) column;
+                buffer.writeByte(MEASURE);
+                buffer.writeBoolean(measure.isPlain());
+                for (double v : measure.getValues()) {
+                    buffer.writeDouble(v);
+                }
+                for (long nulls : measure.getNulls()) {
+                    buffer.writeLong(nulls);
+                }
+            } else {
+                DictionaryColumn dictionary = (DictionaryColumn) column;
+                buffer.writeByte(DICTIONARY);
+                buffer.writeStrings(dictionary.getDictionary());
+                for (int code : dictionary.getCodes()) {
+                    buffer.writeVarInt(code);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ColumnarAggregateResult read(CacheBuffer buffer) {
+        List<ColumnIndex> columnList = AggregateResultCodec.readColumnList(buffer);
+        ResultColumn[] columns = new ResultColumn[buffer.readLength(1)];
+        int rows = buffer.readLength(0);
+        for (int j = 0; j < columns.length; j++) {
+            int kind = buffer.readByte();
+            if (kind == MEASURE) {
+                boolean plain = buffer.readBoolean();
+                double[] values = new double[rows];
+                for (int i = 0; i < rows; i++) {
+                    values[i] = buffer.readDouble();
+                }
+                long[] nulls = new long[(rows + 63) >>> 6];
+                for (int i = 0; i < nulls.length; i++) {
+                    nulls[i] = buffer.readLong();
+                }
+                columns[j] = new MeasureColumn(values, nulls, plain);
+            } else if (kind == DICTIONARY) {
+                String[] dictionary = buffer.readStrings();
+                int[] codes = new int[rows];
+                for (int i = 0; i < rows; i++) {
+                    codes[i] = buffer.readVarInt();
+                    if (codes[i] >= dictionary.length) {
+                        throw new IllegalStateException("the dictionary code is out of range: " + codes[i]);
+                    }
+                }
+                columns[j] = new DictionaryColumn(codes, dictionary);
+            } else {
+                throw new IllegalStateException("unknown column kind: " + kind);
+            }
+        }
+        return new ColumnarAggregateResult(columnList, columns);
+    }
+}
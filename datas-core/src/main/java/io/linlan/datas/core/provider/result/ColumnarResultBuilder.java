@@ -0,0 +1,181 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import io.linlan.datas.core.utils.ResultFunctions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Filename:ColumnarResultBuilder.java
+ * Desc: 列式聚合结果的构建类，逐行追加时直接编码到列中，不保存行数组，
+ * 指标列先按数值列编码，遇到不能无损转换的单元格时改为字典编码列，已追加的值不会丢失
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 00:20
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ColumnarResultBuilder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 列信息
+     */
+    private final List<ColumnIndex> columnList;
+    /**
+     * 每列的编码器
+     */
+    private final Appender[] appenders;
+    private int rows;
+
+    /** constructor of ColumnarResultBuilder
+     * @param columnList 列信息，aggType不为null的列按指标列编码
+     */
+    public ColumnarResultBuilder(List<ColumnIndex> columnList) {
+        this.columnList = columnList;
+        this.appenders = new Appender[columnList.size()];
+        for (int i = 0; i < appenders.length; i++) {
+            appenders[i] = columnList.get(i).getAggType() != null ? new MeasureAppender() : new DictionaryAppender();
+        }
+    }
+
+    /** 追加一行，行数组不被保留，可以重复使用
+     * @param row 数据行，长度与列信息一致
+     */
+    public void add(String[] row) {
+        for (int i = 0; i < appenders.length; i++) {
+            if (!appenders[i].append(row[i], rows)) {
+                appenders[i] = ((MeasureAppender) appenders[i]).toDictionary(rows);
+                appenders[i].append(row[i], rows);
+            }
+        }
+        rows++;
+    }
+
+    /** 获取已追加的行数
+     * @return 行数
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /** 生成列式聚合结果
+     * @return 列式聚合结果
+     */
+    public ColumnarAggregateResult build() {
+        ResultColumn[] columns = new ResultColumn[appenders.length];
+        for (int i = 0; i < appenders.length; i++) {
+            columns[i] = appenders[i].build(rows);
+        }
+        return new ColumnarAggregateResult(columnList, columns);
+    }
+
+    private interface Appender {
+
+        boolean append(String value, int row);
+
+        ResultColumn build(int rows);
+    }
+
+    private static class DictionaryAppender implements Appender {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[INITIAL_CAPACITY];
+
+        @Override
+        public boolean append(String value, int row) {
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                index.put(value, code);
+                dictionary.add(value);
+            }
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, row << 1);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        public ResultColumn build(int rows) {
+            return new DictionaryColumn(Arrays.copyOf(codes, rows), dictionary.toArray(new String[0]));
+        }
+    }
+
+    private static class MeasureAppender implements Appender {
+        private double[] values = new double[INITIAL_CAPACITY];
+        private long[] nulls = new long[(INITIAL_CAPACITY + 63) >>> 6];
+        /**
+         * 已追加的值是否都能按整数不带小数部分的格式无损转换
+         */
+        private boolean plain = true;
+        /**
+         * 已追加的值是否都能按Double.toString的格式无损转换
+         */
+        private boolean java = true;
+
+        @Override
+        public boolean append(String value, int row) {
+            double number = 0;
+            if (value != null) {
+                number = ResultFunctions.parseDouble(value, Double.NaN);
+                if (Double.isNaN(number)) {
+                    return false;
+                }
+                boolean plainNext = plain && value.equals(ResultFunctions.formatDouble(number));
+                boolean javaNext = java && value.equals(Double.toString(number));
+                if (!plainNext && !javaNext) {
+                    return false;
+                }
+                plain = plainNext;
+                java = javaNext;
+            }
+            if (row == values.length) {
+                values = Arrays.copyOf(values, row << 1);
+                nulls = Arrays.copyOf(nulls, ((row << 1) + 63) >>> 6);
+            }
+            values[row] = number;
+            if (value == null) {
+                nulls[row >>> 6] |= 1L << row;
+            }
+            return true;
+        }
+
+        @Override
+        public ResultColumn build(int rows) {
+            return new MeasureColumn(Arrays.copyOf(values, rows), Arrays.copyOf(nulls, (rows + 63) >>> 6), plain);
+        }
+
+        DictionaryAppender toDictionary(int rows) {
+            MeasureColumn measure = (MeasureColumn) build(rows);
+            DictionaryAppender dictionary = new DictionaryAppender();
+            for (int i = 0; i < rows; i++) {
+                dictionary.append(measure.getString(i), i);
+            }
+            return dictionary;
+        }
+    }
+}
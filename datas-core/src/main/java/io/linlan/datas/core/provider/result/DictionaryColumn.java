@@ -0,0 +1,105 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Filename:DictionaryColumn.java
+ * Desc: 字典编码列，每个不同的值只保存一次，行中只保存值在字典中的编号，
+ * 维度列的重复值较多，编码后内存占用远小于字符串数组
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 20:12
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class DictionaryColumn implements ResultColumn, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每行的字典编号
+     */
+    private final int[] codes;
+    /**
+     * 字典，按首次出现的顺序，可以包含null
+     */
+    private final String[] dictionary;
+
+    /** constructor of DictionaryColumn
+     * @param codes 每行的字典编号
+     * @param dictionary 字典
+     */
+    public DictionaryColumn(int[] codes, String[] dictionary) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    /** 对数据表的一列进行字典编码
+     * @param data 数据表
+     * @param column 列号
+     * @return 字典编码列
+     */
+    public static DictionaryColumn encode(String[][] data, int column) {
+        int[] codes = new int[data.length];
+        Map<String, Integer> index = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (int i = 0; i < data.length; i++) {
+            String value = data[i][column];
+            Integer code = index.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                index.put(value, code);
+                dictionary.add(value);
+            }
+            codes[i] = code;
+        }
+        return new DictionaryColumn(codes, dictionary.toArray(new String[0]));
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public String getString(int row) {
+        return dictionary[codes[row]];
+    }
+
+    /** 获取单元格的字典编号
+     * @param row 行号
+     * @return 字典编号
+     */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    public int[] getCodes() {
+        return codes;
+    }
+
+    public String[] getDictionary() {
+        return dictionary;
+    }
+}
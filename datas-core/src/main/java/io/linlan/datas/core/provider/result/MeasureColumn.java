@@ -0,0 +1,142 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+import io.linlan.datas.core.utils.ResultFunctions;
+
+import java.io.Serializable;
+
+/**
+ *
+ * Filename:MeasureColumn.java
+ * Desc: 数值列，值保存为double数组，空值记录在位图中，
+ * 只有每个单元格都能无损地在字符串和double之间转换时才使用数值列
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 20:15
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class MeasureColumn implements ResultColumn, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每行的值，空值为0
+     */
+    private final double[] values;
+    /**
+     * 空值位图，第i位为1表示第i行为null
+     */
+    private final long[] nulls;
+    /**
+     * 转换为字符串的格式，true时整数值不带小数部分，false时与Double.toString一致
+     */
+    private final boolean plain;
+
+    /** constructor of MeasureColumn，整数值转换为不带小数部分的字符串
+     * @param values 每行的值
+     * @param nulls 空值位图，长度为(values.length + 63) / 64
+     */
+    public MeasureColumn(double[] values, long[] nulls) {
+        this(values, nulls, true);
+    }
+
+    /** constructor of MeasureColumn
+     * @param values 每行的值
+     * @param nulls 空值位图，长度为(values.length + 63) / 64
+     * @param plain 整数值是否转换为不带小数部分的字符串
+     */
+    public MeasureColumn(double[] values, long[] nulls, boolean plain) {
+        if (nulls.length != (values.length + 63) >>> 6) {
+            throw new IllegalArgumentException("the null bitmap does not match " + values.length + " values");
+        }
+        this.values = values;
+        this.nulls = nulls;
+        this.plain = plain;
+    }
+
+    /** 对数据表的一列进行数值编码
+     * @param data 数据表
+     * @param column 列号
+     * @return 数值列，存在非数字或者转换后字符串不一致的单元格时返回null
+     */
+    public static MeasureColumn encode(String[][] data, int column) {
+        MeasureColumn measure = encode(data, column, true);
+        return measure != null ? measure : encode(data, column, false);
+    }
+
+    private static MeasureColumn encode(String[][] data, int column, boolean plain) {
+        double[] values = new double[data.length];
+        long[] nulls = new long[(data.length + 63) >>> 6];
+        for (int i = 0; i < data.length; i++) {
+            String value = data[i][column];
+            if (value == null) {
+                nulls[i >>> 6] |= 1L << i;
+                continue;
+            }
+            double number = ResultFunctions.parseDouble(value, Double.NaN);
+            if (Double.isNaN(number) || !value.equals(format(number, plain))) {
+                return null;
+            }
+            values[i] = number;
+        }
+        return new MeasureColumn(values, nulls, plain);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String getString(int row) {
+        return isNull(row) ? null : format(values[row], plain);
+    }
+
+    /** 判断单元格是否为null
+     * @param row 行号
+     * @return 为null时返回true
+     */
+    public boolean isNull(int row) {
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /** 获取单元格的值
+     * @param row 行号
+     * @return 值，空值为0
+     */
+    public double get(int row) {
+        return values[row];
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public long[] getNulls() {
+        return nulls;
+    }
+
+    public boolean isPlain() {
+        return plain;
+    }
+
+    private static String format(double value, boolean plain) {
+        return plain ? ResultFunctions.formatDouble(value) : Double.toString(value);
+    }
+}
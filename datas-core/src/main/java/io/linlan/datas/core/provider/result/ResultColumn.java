@@ -0,0 +1,42 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.provider.result;
+
+/**
+ *
+ * Filename:ResultColumn.java
+ * Desc: 列式聚合结果的列接口，按行号读取单元格的字符串值
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 20:10
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public interface ResultColumn {
+
+    /** 获取列的行数
+     * @return 行数
+     */
+    int size();
+
+    /** 获取单元格的字符串值
+     * @param row 行号
+     * @return 字符串值，可以为null
+     */
+    String getString(int row);
+}
@@ -78,6 +78,8 @@ public class AggregateCollector<T> implements Collector<T[], Object[], Double[]>
                 return Collectors.minBy(Comparator.comparingDouble(this::toDouble));
             case "distinct":
                 return new CardinalityCollector();
+            case "approx_distinct":
+                return CardinalityCollector.approximate();
             default:
                 return Collectors.counting();
         }
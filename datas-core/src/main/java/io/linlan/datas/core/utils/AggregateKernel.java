@@ -0,0 +1,375 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.result.ColumnIndex;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ *
+ * Filename:AggregateKernel.java
+ * Desc: 聚合计算内核类，与AggregateCollector的sum/avg/max/min/distinct/approx_distinct/count语义一致，
+ * 每个指标按分组保存在double[]/long[]槽位中，不装箱也不创建Optional，
+ * 每行中被引用的数字列只解析一次且不依赖异常，非数字按0处理，结果直接返回double[]。
+ * 忽略null时与SQL的语义一致：null不参与sum/avg/max/min/distinct，count只计数非null的值，
+ * 列号小于0的count计数全部行，全部为null的sum/max/min/avg结果为NaN。
+ * 一个内核保存多个分组的中间结果，分组编号由addGroup分配，非线程安全
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 21:05
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class AggregateKernel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int SUM = 0;
+    private static final int AVG = 1;
+    private static final int MAX = 2;
+    private static final int MIN = 3;
+    private static final int DISTINCT = 4;
+    private static final int COUNT = 5;
+    private static final int APPROX_DISTINCT = 6;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * 指标列信息
+     */
+    private final List<ColumnIndex> valueList;
+    /**
+     * 每个指标的聚合类型
+     */
+    private final int[] types;
+    /**
+     * 每个指标在行中的列号
+     */
+    private final int[] sources;
+    /**
+     * 每个指标在已解析数字中的位置，不需要数字的指标为-1
+     */
+    private final int[] numberSlots;
+    /**
+     * 需要解析为数字的列号，去重后每行只解析一次
+     */
+    private final int[] numberSources;
+    /**
+     * 当前行已解析的数字
+     */
+    private final double[] numbers;
+    /**
+     * sum/avg/max/min的槽位，[指标][分组]
+     */
+    private final double[][] doubles;
+    /**
+     * avg/count的计数槽位，[指标][分组]
+     */
+    private final long[][] longs;
+    /**
+     * distinct的去重集合，[指标][分组]
+     */
+    private final Set<String>[][] sets;
+    /**
+     * approx_distinct的去重计数，[指标][分组]
+     */
+    private final DistinctCounter[][] counters;
+    /**
+     * 是否忽略null，与SQL的语义一致
+     */
+    private final boolean ignoreNulls;
+    /**
+     * 当前行的数字列是否不为null
+     */
+    private final boolean[] present;
+    /**
+     * 分组数
+     */
+    private int groups;
+    /**
+     * 槽位容量
+     */
+    private int capacity;
+
+    /** constructor of AggregateKernel, null按0处理，与AggregateCollector一致
+     * @param valueList 指标列信息，index为行中的列号，aggType为聚合类型
+     */
+    public AggregateKernel(List<ColumnIndex> valueList) {
+        this(valueList, false);
+    }
+
+    /** constructor of AggregateKernel
+     * @param valueList 指标列信息，index为行中的列号，aggType为聚合类型
+     * @param ignoreNulls 是否忽略null，true时与SQL的语义一致
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AggregateKernel(List<ColumnIndex> valueList, boolean ignoreNulls) {
+        int size = valueList.size();
+        this.valueList = valueList;
+        this.ignoreNulls = ignoreNulls;
+        this.types = new int[size];
+        this.sources = new int[size];
+        this.numberSlots = new int[size];
+        this.doubles = new double[size][];
+        this.longs = new long[size][];
+        this.sets = new Set[size][];
+        this.counters = new DistinctCounter[size][];
+        int[] numberSources = new int[size];
+        int numberCount = 0;
+        for (int i = 0; i < size; i++) {
+            types[i] = typeOf(valueList.get(i).getAggType());
+            sources[i] = valueList.get(i).getIndex();
+            numberSlots[i] = -1;
+            if (types[i] <= MIN) {
+                for (int j = 0; j < numberCount; j++) {
+                    if (numberSources[j] == sources[i]) {
+                        numberSlots[i] = j;
+                    }
+                }
+                if (numberSlots[i] < 0) {
+                    numberSources[numberCount] = sources[i];
+                    numberSlots[i] = numberCount++;
+                }
+            }
+        }
+        this.numberSources = Arrays.copyOf(numberSources, numberCount);
+        this.numbers = new double[numberCount];
+        this.present = new boolean[numberCount];
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /** 对全部行聚合为一个分组，等同于使用AggregateCollector收集
+     * @param valueList 指标列信息
+     * @param rows 数据行
+     * @return 每个指标的聚合结果
+     */
+    public static double[] aggregate(List<ColumnIndex> valueList, Iterable<? extends String[]> rows) {
+        AggregateKernel kernel = new AggregateKernel(valueList);
+        int group = kernel.addGroup();
+        for (String[] row : rows) {
+            kernel.accumulate(group, row);
+        }
+        return kernel.result(group);
+    }
+
+    /** 增加一个分组
+     * @return 分组编号，从0开始连续分配
+     */
+    public int addGroup() {
+        if (groups == capacity) {
+            allocate(capacity << 1);
+        }
+        int group = groups++;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == MAX) {
+                doubles[i][group] = Double.NEGATIVE_INFINITY;
+            } else if (types[i] == MIN) {
+                doubles[i][group] = Double.POSITIVE_INFINITY;
+            } else if (types[i] == DISTINCT) {
+                sets[i][group] = new HashSet<>();
+            } else if (types[i] == APPROX_DISTINCT) {
+                counters[i][group] = new DistinctCounter();
+            }
+        }
+        return group;
+    }
+
+    /** 将一行数据累加到分组
+     * @param group 分组编号
+     * @param row 数据行
+     */
+    public void accumulate(int group, String[] row) {
+        for (int j = 0; j < numberSources.length; j++) {
+            String cell = row[numberSources[j]];
+            present[j] = cell != null;
+            numbers[j] = ResultFunctions.parseDouble(cell, 0d);
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (ignoreNulls && isNull(i, row)) {
+                continue;
+            }
+            switch (types[i]) {
+                case SUM:
+                    doubles[i][group] += numbers[numberSlots[i]];
+                    break;
+                case AVG:
+                    doubles[i][group] += numbers[numberSlots[i]];
+                    break;
+                case MAX:
+                    doubles[i][group] = Math.max(doubles[i][group], numbers[numberSlots[i]]);
+                    break;
+                case MIN:
+                    doubles[i][group] = Math.min(doubles[i][group], numbers[numberSlots[i]]);
+                    break;
+                case DISTINCT:
+                    sets[i][group].add(row[sources[i]]);
+                    break;
+                case APPROX_DISTINCT:
+                    counters[i][group].add(row[sources[i]]);
+                    break;
+                default:
+                    break;
+            }
+            if (longs[i] != null) {
+                longs[i][group]++;
+            }
+        }
+    }
+
+    private boolean isNull(int i, String[] row) {
+        if (numberSlots[i] >= 0) {
+            return !present[numberSlots[i]];
+        }
+        return sources[i] >= 0 && row[sources[i]] == null;
+    }
+
+    /** 将另一个内核中分组的中间结果合并到当前分组，两个内核的指标必须一致
+     * @param group 当前内核的分组编号
+     * @param other 另一个内核
+     * @param otherGroup 另一个内核的分组编号
+     */
+    public void merge(int group, AggregateKernel other, int otherGroup) {
+        if (!Arrays.equals(types, other.types) || !Arrays.equals(sources, other.sources) || ignoreNulls != other.ignoreNulls) {
+            throw new IllegalArgumentException("the kernels have different values");
+        }
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case SUM:
+                case AVG:
+                    doubles[i][group] += other.doubles[i][otherGroup];
+                    break;
+                case MAX:
+                    doubles[i][group] = Math.max(doubles[i][group], other.doubles[i][otherGroup]);
+                    break;
+                case MIN:
+                    doubles[i][group] = Math.min(doubles[i][group], other.doubles[i][otherGroup]);
+                    break;
+                case DISTINCT:
+                    sets[i][group].addAll(other.sets[i][otherGroup]);
+                    break;
+                case APPROX_DISTINCT:
+                    counters[i][group].merge(other.counters[i][otherGroup]);
+                    break;
+                default:
+                    break;
+            }
+            if (longs[i] != null) {
+                longs[i][group] += other.longs[i][otherGroup];
+            }
+        }
+    }
+
+    /** 获取分组的聚合结果
+     * @param group 分组编号
+     * @return 每个指标的聚合结果
+     */
+    public double[] result(int group) {
+        double[] result = new double[types.length];
+        result(group, result, 0);
+        return result;
+    }
+
+    /** 将分组的聚合结果写入数组，不创建新的数组
+     * @param group 分组编号
+     * @param result 结果数组
+     * @param offset 写入的起始位置
+     */
+    public void result(int group, double[] result, int offset) {
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case SUM:
+                case MAX:
+                case MIN:
+                    result[offset + i] = ignoreNulls && longs[i][group] == 0 ? Double.NaN : doubles[i][group];
+                    break;
+                case AVG:
+                    result[offset + i] = longs[i][group] == 0 ? Double.NaN : doubles[i][group] / longs[i][group];
+                    break;
+                case DISTINCT:
+                    result[offset + i] = sets[i][group].size();
+                    break;
+                case APPROX_DISTINCT:
+                    result[offset + i] = counters[i][group].cardinality();
+                    break;
+                default:
+                    result[offset + i] = longs[i][group];
+            }
+        }
+    }
+
+    /** 获取分组数
+     * @return 分组数
+     */
+    public int getGroupCount() {
+        return groups;
+    }
+
+    public List<ColumnIndex> getValueList() {
+        return valueList;
+    }
+
+    public boolean isIgnoreNulls() {
+        return ignoreNulls;
+    }
+
+    private void allocate(int newCapacity) {
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] <= MIN) {
+                doubles[i] = doubles[i] == null ? new double[newCapacity] : Arrays.copyOf(doubles[i], newCapacity);
+            }
+            if (types[i] == AVG || types[i] == COUNT || (ignoreNulls && types[i] <= MIN)) {
+                longs[i] = longs[i] == null ? new long[newCapacity] : Arrays.copyOf(longs[i], newCapacity);
+            }
+            if (types[i] == DISTINCT) {
+                sets[i] = sets[i] == null ? newSets(newCapacity) : Arrays.copyOf(sets[i], newCapacity);
+            }
+            if (types[i] == APPROX_DISTINCT) {
+                counters[i] = counters[i] == null ? new DistinctCounter[newCapacity] : Arrays.copyOf(counters[i], newCapacity);
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Set<String>[] newSets(int length) {
+        return new Set[length];
+    }
+
+    private static int typeOf(String aggType) {
+        switch (aggType) {
+            case "sum":
+                return SUM;
+            case "avg":
+                return AVG;
+            case "max":
+                return MAX;
+            case "min":
+                return MIN;
+            case "distinct":
+                return DISTINCT;
+            case "approx_distinct":
+                return APPROX_DISTINCT;
+            default:
+                return COUNT;
+        }
+    }
+}
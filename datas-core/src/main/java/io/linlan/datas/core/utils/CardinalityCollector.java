@@ -27,7 +27,8 @@ import java.util.stream.Collector;
 /**
  *
  * Filename:CardinalityCollector.java
- * Desc: 基数收集器类，用于进行基数处理
+ * Desc: 基数收集器类，用于进行基数处理，保存全部不同的值，计数是精确的；
+ * 高基数的列使用approximate创建的近似收集器，超过阈值后由HyperLogLog估计
  *
  * @author Linlan
  * CreateTime:2020/12/20 22:11
@@ -38,6 +39,30 @@ import java.util.stream.Collector;
  */
 public class CardinalityCollector<T> implements Collector<T, Set<T>, Integer> {
 
+    /** 创建默认精度和阈值的近似去重收集器
+     * @param <T> 值的类型
+     * @return 近似去重收集器
+     */
+    public static <T> Collector<T, DistinctCounter, Long> approximate() {
+        return approximate(DistinctCounter.DEFAULT_PRECISION, DistinctCounter.DEFAULT_THRESHOLD);
+    }
+
+    /** 创建近似去重收集器，不同值的个数超过阈值前是精确的，之后使用HyperLogLog估计，部分结果可以合并
+     * @param precision 估计的精度，4到18之间
+     * @param threshold 精确计数的阈值
+     * @param <T> 值的类型，按toString计算哈希值
+     * @return 近似去重收集器
+     */
+    public static <T> Collector<T, DistinctCounter, Long> approximate(int precision, int threshold) {
+        return Collector.of(() -> new DistinctCounter(precision, threshold),
+                (counter, e) -> counter.add(e == null ? null : e.toString()),
+                (a, b) -> {
+                    a.merge(b);
+                    return a;
+                },
+                DistinctCounter::cardinality);
+    }
+
     @Override
     public Supplier<Set<T>> supplier() {
         return () -> {
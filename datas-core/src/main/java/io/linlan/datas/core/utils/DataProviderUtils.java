@@ -46,12 +46,8 @@ public class DataProviderUtils {
      * @throws Exception
      */
     public static AggregateResult transform2AggResult(AggConfig config, List<String[]> list) throws Exception {
-        // recreate a dimension stream
-        Stream<DimensionConfig> dimStream = Stream.concat(config.getColumns().stream(), config.getRows().stream());
-        List<ColumnIndex> dimensionList = dimStream.map(ColumnIndex::fromDimensionConfig).collect(Collectors.toList());
-        int dimSize = dimensionList.size();
-        dimensionList.addAll(config.getValues().stream().map(ColumnIndex::fromValueConfig).collect(Collectors.toList()));
-        IntStream.range(0, dimensionList.size()).forEach(j -> dimensionList.get(j).setIndex(j));
+        List<ColumnIndex> dimensionList = getColumnList(config);
+        int dimSize = config.getColumns().size() + config.getRows().size();
         list.forEach(row -> {
             IntStream.range(0, dimSize).forEach(i -> {
                 if (row[i] == null) row[i] = SqlHelper.NULL_STRING;
@@ -60,4 +56,17 @@ public class DataProviderUtils {
         String[][] result = list.toArray(new String[][]{});
         return new AggregateResult(dimensionList, result);
     }
+
+    /** 获取聚合配置对应的结果列信息，依次为列维度、行维度和值，index为结果中的位置
+     * @param config 聚合配置
+     * @return 结果列信息
+     */
+    public static List<ColumnIndex> getColumnList(AggConfig config) {
+        // recreate a dimension stream
+        Stream<DimensionConfig> dimStream = Stream.concat(config.getColumns().stream(), config.getRows().stream());
+        List<ColumnIndex> dimensionList = dimStream.map(ColumnIndex::fromDimensionConfig).collect(Collectors.toList());
+        dimensionList.addAll(config.getValues().stream().map(ColumnIndex::fromValueConfig).collect(Collectors.toList()));
+        IntStream.range(0, dimensionList.size()).forEach(j -> dimensionList.get(j).setIndex(j));
+        return dimensionList;
+    }
 }
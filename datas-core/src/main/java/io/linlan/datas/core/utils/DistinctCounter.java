@@ -0,0 +1,233 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import java.io.Serializable;
+
+/**
+ *
+ * Filename:DistinctCounter.java
+ * Desc: 去重计数类，先在开放寻址的long集合中保存值的64位哈希值，计数是精确的，
+ * 超过阈值后转换为HyperLogLog估计，内存不再随基数增长，精确与估计两种状态之间可以互相合并
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 23:55
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class DistinctCounter implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 默认精度，误差约0.81%
+     */
+    public static final int DEFAULT_PRECISION = 14;
+    /**
+     * 默认阈值，超过后转换为估计
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    /**
+     * null值的哈希值
+     */
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * 估计的精度
+     */
+    private final int precision;
+    /**
+     * 精确计数的阈值
+     */
+    private final int threshold;
+    /**
+     * 精确计数时的哈希值集合，0表示空位
+     */
+    private long[] hashes;
+    /**
+     * 精确计数时集合中的个数
+     */
+    private int size;
+    /**
+     * 精确计数时是否包含哈希值0
+     */
+    private boolean containsZero;
+    /**
+     * 超过阈值后的估计，之前为null
+     */
+    private HyperLogLog sketch;
+
+    public DistinctCounter() {
+        this(DEFAULT_PRECISION, DEFAULT_THRESHOLD);
+    }
+
+    /** constructor of DistinctCounter
+     * @param precision 估计的精度，4到18之间
+     * @param threshold 精确计数的阈值，0表示直接使用估计
+     */
+    public DistinctCounter(int precision, int threshold) {
+        if (precision < HyperLogLog.MINIMUM_PRECISION || precision > HyperLogLog.MAXIMUM_PRECISION) {
+            throw new IllegalArgumentException("the precision must be in [" + HyperLogLog.MINIMUM_PRECISION + ", "
+                    + HyperLogLog.MAXIMUM_PRECISION + "]: " + precision);
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("the threshold must not be negative: " + threshold);
+        }
+        this.precision = precision;
+        this.threshold = threshold;
+        if (threshold == 0) {
+            this.sketch = new HyperLogLog(precision);
+        } else {
+            this.hashes = new long[INITIAL_CAPACITY];
+        }
+    }
+
+    /** 计算字符串的64位哈希值，FNV-1a后再经过murmur3的终结混合
+     * @param value 字符串，可以为null
+     * @return 哈希值
+     */
+    public static long hash64(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /** 加入一个值
+     * @param value 值，可以为null
+     */
+    public void add(String value) {
+        addHash(hash64(value));
+    }
+
+    /** 加入一个64位哈希值
+     * @param hash 哈希值
+     */
+    public void addHash(long hash) {
+        if (sketch != null) {
+            sketch.addHash(hash);
+            return;
+        }
+        if (hash == 0) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+        } else {
+            int mask = hashes.length - 1;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (hashes[slot] != 0) {
+                if (hashes[slot] == hash) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            size++;
+            if (size << 1 > hashes.length) {
+                resize(hashes.length << 1);
+            }
+        }
+        if (size > threshold) {
+            toSketch();
+        }
+    }
+
+    /** 合并另一个计数
+     * @param other 另一个计数，转换为估计后精度必须一致
+     */
+    public void merge(DistinctCounter other) {
+        if (other.sketch != null) {
+            if (sketch == null) {
+                toSketch();
+            }
+            sketch.merge(other.sketch);
+            return;
+        }
+        if (other.containsZero) {
+            addHash(0);
+        }
+        for (long hash : other.hashes) {
+            if (hash != 0) {
+                addHash(hash);
+            }
+        }
+    }
+
+    /** 获取去重个数，转换为估计之前是精确的
+     * @return 去重个数
+     */
+    public long cardinality() {
+        return sketch != null ? sketch.cardinality() : size;
+    }
+
+    /** 是否已转换为估计
+     * @return 已转换为估计时返回true
+     */
+    public boolean isApproximate() {
+        return sketch != null;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private void resize(int capacity) {
+        long[] old = hashes;
+        hashes = new long[capacity];
+        int mask = capacity - 1;
+        for (long hash : old) {
+            if (hash != 0) {
+                int slot = (int) (hash ^ (hash >>> 32)) & mask;
+                while (hashes[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = hash;
+            }
+        }
+    }
+
+    private void toSketch() {
+        sketch = new HyperLogLog(precision);
+        if (containsZero) {
+            sketch.addHash(0);
+        }
+        for (long hash : hashes) {
+            if (hash != 0) {
+                sketch.addHash(hash);
+            }
+        }
+        hashes = null;
+        size = 0;
+        containsZero = false;
+    }
+}
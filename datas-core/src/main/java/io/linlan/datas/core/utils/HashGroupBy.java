@@ -0,0 +1,405 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.ConfigComponent;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.ColumnIndex;
+import io.linlan.datas.core.provider.result.ColumnarAggregateResult;
+import io.linlan.datas.core.provider.result.DictionaryColumn;
+import io.linlan.datas.core.provider.result.MeasureColumn;
+import io.linlan.datas.core.provider.result.ResultColumn;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ *
+ * Filename:HashGroupBy.java
+ * Desc: 内存分组聚合类，可以按任意聚合配置对缓存的明细数据重新分组聚合，不需要再次执行SQL。
+ * 每个维度列先按字典编码为int，多个维度的编号组成分组键，在开放寻址的哈希表中线性探测查找分组，
+ * 指标由AggregateKernel按AggregateCollector的语义聚合，维度的null按NULL_STRING处理，非线程安全。
+ * 分组聚合本身可以序列化后缓存，再由rollup上卷到更少的维度
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 22:30
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class HashGroupBy implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 维度在行中的列号
+     */
+    private final int[] dimensionColumns;
+    /**
+     * 每个维度的字典索引，值到编号
+     */
+    private final Map<String, Integer>[] dictionaryIndexes;
+    /**
+     * 每个维度的字典，编号到值
+     */
+    private final List<String>[] dictionaries;
+    /**
+     * 指标聚合内核，分组编号与本类一致
+     */
+    private final AggregateKernel kernel;
+    /**
+     * 开放寻址的哈希表，保存分组编号加1，0表示空位
+     */
+    private int[] table;
+    /**
+     * 每个分组的哈希值
+     */
+    private int[] hashes;
+    /**
+     * 每个分组的维度编号，第g个分组位于[g * dims, (g + 1) * dims)
+     */
+    private int[] keys;
+    /**
+     * 当前行的维度编号
+     */
+    private final int[] codes;
+    private int groups;
+
+    /** constructor of HashGroupBy, null按0处理，与AggregateCollector一致
+     * @param dimensionColumns 维度在行中的列号
+     * @param valueList 指标列信息，index为行中的列号
+     */
+    public HashGroupBy(int[] dimensionColumns, List<ColumnIndex> valueList) {
+        this(dimensionColumns, valueList, false);
+    }
+
+    /** constructor of HashGroupBy
+     * @param dimensionColumns 维度在行中的列号
+     * @param valueList 指标列信息，index为行中的列号
+     * @param ignoreNulls 是否忽略指标的null，true时与SQL的语义一致，见AggregateKernel
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashGroupBy(int[] dimensionColumns, List<ColumnIndex> valueList, boolean ignoreNulls) {
+        this.dimensionColumns = dimensionColumns.clone();
+        this.dictionaryIndexes = new Map[dimensionColumns.length];
+        this.dictionaries = new List[dimensionColumns.length];
+        for (int d = 0; d < dimensionColumns.length; d++) {
+            dictionaryIndexes[d] = new HashMap<>();
+            dictionaries[d] = new ArrayList<>();
+        }
+        this.kernel = new AggregateKernel(valueList, ignoreNulls);
+        this.codes = new int[dimensionColumns.length];
+        this.table = new int[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY >> 1];
+        this.keys = new int[(INITIAL_CAPACITY >> 1) * dimensionColumns.length];
+    }
+
+    /** 按聚合配置对明细数据分组聚合，先按维度和过滤条件过滤，结果与执行assembleAggDataSql的列一致
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @param rows 明细数据
+     * @return 列式聚合结果，维度为字典编码列，指标为数值列
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, String[] columnNames, String[][] rows) {
+        HashGroupBy groupBy = of(config, columnNames);
+        Predicate<String[]> filter = filterOf(config, columnNames);
+        for (String[] row : rows) {
+            if (filter.test(row)) {
+                groupBy.add(row);
+            }
+        }
+        return groupBy.toResult(DataProviderUtils.getColumnList(config));
+    }
+
+    /** 按聚合配置创建分组聚合，不包括过滤条件，null按0处理
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @return 分组聚合
+     */
+    public static HashGroupBy of(AggConfig config, String[] columnNames) {
+        return of(config, columnNames, false);
+    }
+
+    /** 按聚合配置创建分组聚合，不包括过滤条件
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @param ignoreNulls 是否忽略指标的null，true时与SQL的语义一致
+     * @return 分组聚合
+     */
+    public static HashGroupBy of(AggConfig config, String[] columnNames, boolean ignoreNulls) {
+        ToIntFunction<String> position = positionOf(columnNames);
+        int[] dimensionColumns = Stream.concat(config.getColumns().stream(), config.getRows().stream())
+                .mapToInt(e -> position.applyAsInt(e.getColumnName()))
+                .toArray();
+        List<ColumnIndex> valueList = new ArrayList<>(config.getValues().size());
+        for (ValueConfig valueConfig : config.getValues()) {
+            ColumnIndex columnIndex = ColumnIndex.fromValueConfig(valueConfig);
+            columnIndex.setIndex(position.applyAsInt(valueConfig.getColumn()));
+            valueList.add(columnIndex);
+        }
+        return new HashGroupBy(dimensionColumns, valueList, ignoreNulls);
+    }
+
+    /** 获取聚合配置中维度和过滤条件对应的行判断条件
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @return 判断条件
+     */
+    public static Predicate<String[]> filterOf(AggConfig config, String[] columnNames) {
+        Stream<DimensionConfig> c = config.getColumns().stream();
+        Stream<DimensionConfig> r = config.getRows().stream();
+        Stream<ConfigComponent> f = config.getFilters() == null ? Stream.empty() : config.getFilters().stream();
+        Stream<ConfigComponent> filters = Stream.concat(Stream.concat(c, r), f);
+        return RowFilter.of(filters, positionOf(columnNames));
+    }
+
+    /** 将一行数据累加到所属分组
+     * @param row 数据行
+     */
+    public void add(String[] row) {
+        int hash = 0;
+        for (int d = 0; d < dimensionColumns.length; d++) {
+            String value = row[dimensionColumns[d]];
+            if (value == null) {
+                value = SqlHelper.NULL_STRING;
+            }
+            codes[d] = codeOf(d, value);
+            hash = hash * 31 + codes[d];
+        }
+        kernel.accumulate(findOrAddGroup(codes, mix(hash)), row);
+    }
+
+    /** 合并另一个分组聚合的结果，维度值相同的分组合并指标，另一个分组聚合的字典编号先转换为当前的编号
+     * @param other 另一个分组聚合，维度和指标必须一致
+     */
+    public void merge(HashGroupBy other) {
+        if (!Arrays.equals(dimensionColumns, other.dimensionColumns)) {
+            throw new IllegalArgumentException("the group-bys have different dimensions");
+        }
+        int dims = dimensionColumns.length;
+        int[][] remaps = new int[dims][];
+        for (int d = 0; d < dims; d++) {
+            List<String> dictionary = other.dictionaries[d];
+            remaps[d] = new int[dictionary.size()];
+            for (int code = 0; code < remaps[d].length; code++) {
+                remaps[d][code] = codeOf(d, dictionary.get(code));
+            }
+        }
+        int[] mergeCodes = new int[dims];
+        for (int g = 0; g < other.groups; g++) {
+            int hash = 0;
+            for (int d = 0; d < dims; d++) {
+                mergeCodes[d] = remaps[d][other.keys[g * dims + d]];
+                hash = hash * 31 + mergeCodes[d];
+            }
+            kernel.merge(findOrAddGroup(mergeCodes, mix(hash)), other.kernel, g);
+        }
+    }
+
+    /** 上卷到部分维度，维度值相同的分组合并指标，指标与当前分组聚合一致
+     * @param dimensions 保留的维度在当前维度中的序号，按结果的顺序
+     * @param filter 分组的判断条件，输入为当前全部维度的值，null表示不过滤
+     * @return 上卷后的分组聚合
+     */
+    public HashGroupBy rollup(int[] dimensions, Predicate<String[]> filter) {
+        int dims = dimensionColumns.length;
+        int[] rollupColumns = new int[dimensions.length];
+        for (int d = 0; d < dimensions.length; d++) {
+            rollupColumns[d] = dimensionColumns[dimensions[d]];
+        }
+        HashGroupBy rollup = new HashGroupBy(rollupColumns, kernel.getValueList(), kernel.isIgnoreNulls());
+        String[] cell = new String[dims];
+        int[] rollupCodes = new int[dimensions.length];
+        for (int g = 0; g < groups; g++) {
+            for (int d = 0; d < dims; d++) {
+                cell[d] = dictionaries[d].get(keys[g * dims + d]);
+            }
+            if (filter != null && !filter.test(cell)) {
+                continue;
+            }
+            int hash = 0;
+            for (int d = 0; d < dimensions.length; d++) {
+                rollupCodes[d] = rollup.codeOf(d, cell[dimensions[d]]);
+                hash = hash * 31 + rollupCodes[d];
+            }
+            rollup.kernel.merge(rollup.findOrAddGroup(rollupCodes, mix(hash)), kernel, g);
+        }
+        return rollup;
+    }
+
+    /** 创建维度和指标相同的空分组聚合，用于并行时每个线程的部分结果
+     * @return 空分组聚合
+     */
+    public HashGroupBy newPartial() {
+        return new HashGroupBy(dimensionColumns, kernel.getValueList(), kernel.isIgnoreNulls());
+    }
+
+    /** 获取分组数
+     * @return 分组数
+     */
+    public int getGroupCount() {
+        return groups;
+    }
+
+    /** 获取指标列信息
+     * @return 指标列信息，index为行中的列号
+     */
+    public List<ColumnIndex> getValueList() {
+        return kernel.getValueList();
+    }
+
+    /** 是否忽略指标的null
+     * @return true表示与SQL的语义一致
+     */
+    public boolean isIgnoreNulls() {
+        return kernel.isIgnoreNulls();
+    }
+
+    /** 生成聚合结果，每个分组一行，结果为NaN的指标为null，例如全部为null的avg
+     * @param columnList 结果列信息，依次为维度和指标
+     * @return 列式聚合结果
+     */
+    public ColumnarAggregateResult toResult(List<ColumnIndex> columnList) {
+        int dims = dimensionColumns.length;
+        int values = kernel.getValueList().size();
+        ResultColumn[] columns = new ResultColumn[dims + values];
+        for (int d = 0; d < dims; d++) {
+            int[] groupCodes = new int[groups];
+            for (int g = 0; g < groups; g++) {
+                groupCodes[g] = keys[g * dims + d];
+            }
+            columns[d] = new DictionaryColumn(groupCodes, dictionaries[d].toArray(new String[0]));
+        }
+        double[][] measures = new double[values][groups];
+        double[] result = new double[values];
+        for (int g = 0; g < groups; g++) {
+            kernel.result(g, result, 0);
+            for (int i = 0; i < values; i++) {
+                measures[i][g] = result[i];
+            }
+        }
+        for (int i = 0; i < values; i++) {
+            long[] nulls = new long[(groups + 63) >>> 6];
+            for (int g = 0; g < groups; g++) {
+                if (Double.isNaN(measures[i][g])) {
+                    nulls[g >>> 6] |= 1L << g;
+                }
+            }
+            columns[dims + i] = new MeasureColumn(measures[i], nulls);
+        }
+        return new ColumnarAggregateResult(columnList, columns);
+    }
+
+    private int codeOf(int d, String value) {
+        Integer code = dictionaryIndexes[d].get(value);
+        if (code == null) {
+            code = dictionaries[d].size();
+            dictionaryIndexes[d].put(value, code);
+            dictionaries[d].add(value);
+        }
+        return code;
+    }
+
+    private int findOrAddGroup(int[] codes, int hash) {
+        int dims = codes.length;
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            int group = table[slot] - 1;
+            if (group < 0) {
+                break;
+            }
+            if (hashes[group] == hash && equalKeys(group, codes)) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int group = kernel.addGroup();
+        if (group == hashes.length) {
+            hashes = Arrays.copyOf(hashes, group << 1);
+            keys = Arrays.copyOf(keys, (group << 1) * dims);
+        }
+        hashes[group] = hash;
+        System.arraycopy(codes, 0, keys, group * dims, dims);
+        table[slot] = group + 1;
+        groups++;
+        if (groups << 1 > table.length) {
+            rehash(table.length << 1);
+        }
+        return group;
+    }
+
+    private boolean equalKeys(int group, int[] codes) {
+        int offset = group * codes.length;
+        for (int d = 0; d < codes.length; d++) {
+            if (keys[offset + d] != codes[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] newTable = new int[capacity];
+        int mask = capacity - 1;
+        for (int g = 0; g < groups; g++) {
+            int slot = hashes[g] & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = g + 1;
+        }
+        table = newTable;
+    }
+
+    /**
+     * 打散维度编号组合的哈希值，避免连续的编号落在连续的槽位
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ToIntFunction<String> positionOf(String[] columnNames) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = columnNames.length - 1; i >= 0; i--) {
+            positions.put(columnNames[i].toUpperCase(), i);
+        }
+        return name -> {
+            Integer position = name == null ? null : positions.get(name.toUpperCase());
+            if (position == null) {
+                throw new IllegalArgumentException("the column is not found: " + name
+                        + ", columns: " + Arrays.stream(columnNames).collect(Collectors.joining(",")));
+            }
+            return position;
+        };
+    }
+}
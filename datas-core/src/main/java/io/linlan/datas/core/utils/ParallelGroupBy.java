@@ -0,0 +1,131 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.result.ColumnarAggregateResult;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ *
+ * Filename:ParallelGroupBy.java
+ * Desc: 并行分组聚合类，在ForkJoinPool中将数据行二分为多个区段，每个区段由一个线程聚合到自己的HashGroupBy，
+ * 不共享任何可变状态，部分结果随fork/join逐层两两合并，合并的次数与线程数成对数关系，
+ * 结果与HashGroupBy.aggregate一致，只有分组的顺序可能不同
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 23:00
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ParallelGroupBy {
+
+    /**
+     * 区段的最少行数，行数更少时不再拆分
+     */
+    public static final int MINIMUM_CHUNK = 8192;
+
+    /**
+     * 每个线程分到的区段数，多于1个以便先完成的线程窃取其它区段
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelGroupBy() {
+    }
+
+    /** 在公共ForkJoinPool中按聚合配置对明细数据并行分组聚合
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @param rows 明细数据
+     * @return 列式聚合结果
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, String[] columnNames, String[][] rows) {
+        return aggregate(config, columnNames, rows, ForkJoinPool.commonPool());
+    }
+
+    /** 在指定的ForkJoinPool中按聚合配置对明细数据并行分组聚合
+     * @param config 聚合配置
+     * @param columnNames 明细数据的列名，不区分大小写
+     * @param rows 明细数据
+     * @param pool 执行聚合的线程池
+     * @return 列式聚合结果
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, String[] columnNames, String[][] rows, ForkJoinPool pool) {
+        HashGroupBy groupBy = aggregate(HashGroupBy.of(config, columnNames), HashGroupBy.filterOf(config, columnNames), rows, pool);
+        return groupBy.toResult(DataProviderUtils.getColumnList(config));
+    }
+
+    /** 使用已创建的分组聚合对数据行并行聚合
+     * @param prototype 分组聚合，只用于创建每个区段的部分结果，本身不被修改
+     * @param filter 行判断条件，必须是线程安全的
+     * @param rows 数据行
+     * @param pool 执行聚合的线程池
+     * @return 合并后的分组聚合
+     */
+    public static HashGroupBy aggregate(HashGroupBy prototype, Predicate<String[]> filter, String[][] rows, ForkJoinPool pool) {
+        int chunk = Math.max(MINIMUM_CHUNK, rows.length / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        return pool.invoke(new GroupByTask(prototype, filter, rows, 0, rows.length, chunk));
+    }
+
+    private static class GroupByTask extends RecursiveTask<HashGroupBy> {
+        private static final long serialVersionUID = 1L;
+
+        private final HashGroupBy prototype;
+        private final Predicate<String[]> filter;
+        private final String[][] rows;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        GroupByTask(HashGroupBy prototype, Predicate<String[]> filter, String[][] rows, int from, int to, int chunk) {
+            this.prototype = prototype;
+            this.filter = filter;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected HashGroupBy compute() {
+            if (to - from <= chunk) {
+                HashGroupBy partial = prototype.newPartial();
+                for (int i = from; i < to; i++) {
+                    if (filter.test(rows[i])) {
+                        partial.add(rows[i]);
+                    }
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            GroupByTask right = new GroupByTask(prototype, filter, rows, middle, to, chunk);
+            right.fork();
+            HashGroupBy left = new GroupByTask(prototype, filter, rows, from, middle, chunk).compute();
+            HashGroupBy merged = right.join();
+            if (left.getGroupCount() >= merged.getGroupCount()) {
+                left.merge(merged);
+                return left;
+            }
+            merged.merge(left);
+            return merged;
+        }
+    }
+}
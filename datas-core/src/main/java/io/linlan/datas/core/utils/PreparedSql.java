@@ -0,0 +1,78 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * Filename:PreparedSql.java
+ * Desc: 参数化SQL类，SQL中的过滤值为?占位符，绑定值按占位符的顺序保存，
+ * 相同结构的聚合配置生成相同的SQL，可以复用数据库的执行计划和驱动的语句缓存，也避免了SQL注入
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 03:20
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class PreparedSql {
+
+    /**
+     * 带?占位符的SQL
+     */
+    private final String sql;
+    /**
+     * 按占位符顺序的绑定值
+     */
+    private final List<Object> binds;
+
+    /** constructor of PreparedSql
+     * @param sql 带?占位符的SQL
+     * @param binds 按占位符顺序的绑定值
+     */
+    public PreparedSql(String sql, List<Object> binds) {
+        this.sql = sql;
+        this.binds = Collections.unmodifiableList(binds);
+    }
+
+    /** 按顺序设置语句的参数
+     * @param statement 由getSql()创建的语句
+     * @throws SQLException 设置参数失败
+     */
+    public void bind(PreparedStatement statement) throws SQLException {
+        for (int i = 0; i < binds.size(); i++) {
+            statement.setObject(i + 1, binds.get(i));
+        }
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getBinds() {
+        return binds;
+    }
+
+    @Override
+    public String toString() {
+        return sql + "\n" + binds;
+    }
+}
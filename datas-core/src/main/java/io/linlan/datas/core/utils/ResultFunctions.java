@@ -39,4 +39,115 @@ public class ResultFunctions {
             return 0d;
         }
     }
+
+    /**
+     * 精确可表示的10的幂，用于快速解析
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    /** 不抛出异常地将字符串解析为double，先校验格式，非数字时返回默认值，
+     * 15位以内有效数字且指数较小时直接计算，结果与Double.parseDouble一致
+     * @param str 字符串，可以为null
+     * @param defaultValue 非数字时的默认值
+     * @return 解析后的值
+     */
+    public static double parseDouble(String str, double defaultValue) {
+        if (str == null) {
+            return defaultValue;
+        }
+        int length = str.length();
+        int i = 0;
+        while (i < length && str.charAt(i) <= ' ') {
+            i++;
+        }
+        while (length > i && str.charAt(length - 1) <= ' ') {
+            length--;
+        }
+        if (i == length) {
+            return defaultValue;
+        }
+        int start = i;
+        boolean negative = false;
+        char c = str.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+        for (; i < length; i++) {
+            c = str.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    if (seenDot) {
+                        scale++;
+                    }
+                    continue;
+                }
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenDot) {
+                        scale++;
+                    }
+                } else if (!seenDot) {
+                    scale--;
+                }
+                digits++;
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return defaultValue;
+        }
+        int exponent = 0;
+        if (i < length && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+                negativeExponent = str.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < length && str.charAt(i) >= '0' && str.charAt(i) <= '9'; i++) {
+                if (exponent < 100000) {
+                    exponent = exponent * 10 + (str.charAt(i) - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return defaultValue;
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i < length) {
+            return defaultValue;
+        }
+        int power = exponent - scale;
+        if (digits <= 15 && power >= -22 && power <= 22) {
+            double value = power < 0 ? mantissa / POWERS_OF_TEN[-power] : mantissa * POWERS_OF_TEN[power];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(str.substring(start, length));
+    }
+
+    /** 将double格式化为字符串，整数值不带小数部分，与parseDouble互为逆运算
+     * @param value 值
+     * @return 字符串
+     */
+    public static String formatDouble(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *
+ * Filename:ResultSetIterator.java
+ * Desc: 逐行读取ResultSet的迭代器，重复返回同一个行数组，读取失败时抛出以SQLException为原因的IllegalStateException
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 00:50
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class ResultSetIterator implements Iterator<String[]> {
+
+    /**
+     * 查询结果，不会被关闭
+     */
+    private final ResultSet rs;
+    /**
+     * 重复使用的行数组
+     */
+    private final String[] row;
+    private Boolean hasNext;
+
+    /** constructor of ResultSetIterator
+     * @param rs 查询结果
+     * @param columns 列数
+     */
+    public ResultSetIterator(ResultSet rs, int columns) {
+        this.rs = rs;
+        this.row = new String[columns];
+    }
+
+    /** 获取查询结果的列名，取自ResultSetMetaData的列标签
+     * @param rs 查询结果
+     * @return 列名
+     * @throws SQLException 读取失败
+     */
+    public static String[] columnNames(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columnNames;
+    }
+
+    /** 取出迭代时包装的SQLException
+     * @param e 迭代时抛出的异常
+     * @return 原因是SQLException时返回原因，否则重新抛出e
+     */
+    public static SQLException unwrap(IllegalStateException e) {
+        if (e.getCause() instanceof SQLException) {
+            return (SQLException) e.getCause();
+        }
+        throw e;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasNext == null) {
+            try {
+                hasNext = rs.next();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getString(i + 1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        hasNext = null;
+        return row;
+    }
+}
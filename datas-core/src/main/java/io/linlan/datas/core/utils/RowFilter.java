@@ -0,0 +1,164 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.config.CompositeConfig;
+import io.linlan.datas.core.provider.config.ConfigComponent;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ *
+ * Filename:RowFilter.java
+ * Desc: 行过滤器类，在内存中按SqlHelper生成的WHERE条件的语义过滤数据行，
+ * NULL_STRING表示null，null不满足不等于和范围条件，两边都是数字时按数值比较，否则按字符串比较
+ *
+ * @author Linlan
+ * CreateTime:2026/10/17 22:10
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class RowFilter {
+
+    private RowFilter() {
+    }
+
+    /** 将过滤配置转换为行的判断条件，多个配置之间为AND
+     * @param filters 过滤配置，与SqlHelper.assembleFilterSql的输入一致
+     * @param columnPosition 列名在行中的位置
+     * @return 判断条件
+     */
+    public static Predicate<String[]> of(Stream<? extends ConfigComponent> filters, ToIntFunction<String> columnPosition) {
+        List<Predicate<String[]>> predicates = filters.map(e -> toPredicate(e, columnPosition))
+                .filter(e -> e != null)
+                .collect(Collectors.toList());
+        if (predicates.isEmpty()) {
+            return row -> true;
+        }
+        return row -> {
+            for (Predicate<String[]> predicate : predicates) {
+                if (!predicate.test(row)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static Predicate<String[]> toPredicate(ConfigComponent cc, ToIntFunction<String> columnPosition) {
+        if (cc instanceof DimensionConfig) {
+            return toPredicate((DimensionConfig) cc, columnPosition);
+        } else if (cc instanceof CompositeConfig) {
+            CompositeConfig compositeConfig = (CompositeConfig) cc;
+            List<Predicate<String[]>> predicates = compositeConfig.getConfigComponents().stream()
+                    .map(e -> toPredicate(e, columnPosition))
+                    .filter(e -> e != null)
+                    .collect(Collectors.toList());
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            boolean or = "OR".equalsIgnoreCase(compositeConfig.getType());
+            return row -> {
+                for (Predicate<String[]> predicate : predicates) {
+                    if (predicate.test(row) == or) {
+                        return or;
+                    }
+                }
+                return !or;
+            };
+        }
+        return null;
+    }
+
+    private static Predicate<String[]> toPredicate(DimensionConfig config, ToIntFunction<String> columnPosition) {
+        List<String> values = config.getValues();
+        if (values == null || values.isEmpty() || config.getFilterType() == null) {
+            return null;
+        }
+        int column = columnPosition.applyAsInt(config.getColumnName());
+        String v0 = values.get(0);
+        String v1 = values.size() == 2 ? values.get(1) : null;
+        switch (config.getFilterType()) {
+            case "=":
+            case "eq": {
+                Set<String> members = new HashSet<>(values);
+                return row -> members.contains(row[column] == null ? SqlHelper.NULL_STRING : row[column]);
+            }
+            case "≠":
+            case "ne": {
+                Set<String> members = new HashSet<>(values);
+                return row -> row[column] != null && !SqlHelper.NULL_STRING.equals(row[column]) && !members.contains(row[column]);
+            }
+            case ">":
+                return row -> inRange(row[column], v0, false, null, false);
+            case "<":
+                return row -> inRange(row[column], null, false, v0, false);
+            case "≥":
+                return row -> inRange(row[column], v0, true, null, false);
+            case "≤":
+                return row -> inRange(row[column], null, false, v0, true);
+            case "(a,b]":
+                return row -> inRange(row[column], v0, false, v1, true);
+            case "[a,b)":
+                return row -> inRange(row[column], v0, true, v1, false);
+            case "(a,b)":
+                return row -> inRange(row[column], v0, false, v1, false);
+            case "[a,b]":
+                return row -> inRange(row[column], v0, true, v1, true);
+        }
+        return null;
+    }
+
+    /**
+     * 与SqlHelper的范围条件一致，边界为null时不限制，null值不满足任何范围条件
+     */
+    private static boolean inRange(String value, String lower, boolean includeLower, String upper, boolean includeUpper) {
+        if (value == null || SqlHelper.NULL_STRING.equals(value)) {
+            return false;
+        }
+        if (lower != null) {
+            int c = compare(value, lower);
+            if (includeLower ? c < 0 : c <= 0) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int c = compare(value, upper);
+            if (includeUpper ? c > 0 : c >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(String value, String bound) {
+        double a = ResultFunctions.parseDouble(value, Double.NaN);
+        double b = ResultFunctions.parseDouble(bound, Double.NaN);
+        if (!Double.isNaN(a) && !Double.isNaN(b)) {
+            return Double.compare(a, b);
+        }
+        return value.compareTo(bound);
+    }
+}
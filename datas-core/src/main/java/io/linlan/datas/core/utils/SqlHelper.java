@@ -19,8 +19,11 @@ import io.linlan.commons.core.StringUtils;
 import io.linlan.datas.core.provider.config.*;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.StringJoiner;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -43,6 +46,10 @@ public class SqlHelper {
      * 空字符串
      */
     public static final String NULL_STRING = "#NULL";
+    /**
+     * 缓存的参数化SQL模板的最大数量，超过后清空重新缓存
+     */
+    public static final int MAXIMUM_TEMPLATES = 1024;
     /**
      * 表名称
      */
@@ -55,6 +62,10 @@ public class SqlHelper {
      * 查询帮助语法检查
      */
     private SqlSyntaxHelper sqlSyntaxHelper = new SqlSyntaxHelper();
+    /**
+     * 参数化SQL模板的缓存，键为聚合配置的结构，不包括过滤值
+     */
+    private final ConcurrentMap<String, String> templates = new ConcurrentHashMap<>();
 
     public SqlHelper() {}
 
@@ -66,30 +77,47 @@ public class SqlHelper {
     public String assembleFilterSql(AggConfig config) {
         String whereStr = null;
         if (config != null) {
-            Stream<DimensionConfig> c = config.getColumns().stream();
-            Stream<DimensionConfig> r = config.getRows().stream();
-            Stream<ConfigComponent> f = config.getFilters().stream();
-            Stream<ConfigComponent> filters = Stream.concat(Stream.concat(c, r), f);
-            whereStr = filterSql(filters, "WHERE");
+            whereStr = filterSql(filtersOf(config), "WHERE", false);
         }
         return whereStr;
     }
 
     public String assembleFilterSql(Stream<ConfigComponent> filters) {
-        return filterSql(filters, "WHERE");
+        return filterSql(filters, "WHERE", false);
+    }
+
+    /** 生成参数化的过滤条件，与assembleFilterSql一致，过滤值为?占位符
+     * @param config 聚合配置
+     * @return 参数化的WHERE子句，没有过滤条件时SQL为空字符串
+     */
+    public PreparedSql assembleFilterPreparedSql(AggConfig config) {
+        if (config == null) {
+            return new PreparedSql("", new ArrayList<>());
+        }
+        return prepare("filter", config, () -> filterSql(filtersOf(config), "WHERE", true));
     }
 
     public String assembleAggDataSql(AggConfig config) throws Exception {
-        Stream<DimensionConfig> c = config.getColumns().stream();
-        Stream<DimensionConfig> r = config.getRows().stream();
-        Stream<ConfigComponent> f = config.getFilters().stream();
-        Stream<ConfigComponent> filters = Stream.concat(Stream.concat(c, r), f);
+        return aggDataSql(config, false);
+    }
+
+    /** 生成参数化的聚合查询SQL，与assembleAggDataSql一致，过滤值为?占位符，
+     * 结构相同的聚合配置共用缓存的SQL模板，只重新收集绑定值
+     * @param config 聚合配置
+     * @return 参数化SQL
+     */
+    public PreparedSql assembleAggDataPreparedSql(AggConfig config) {
+        return prepare("agg", config, () -> aggDataSql(config, true));
+    }
+
+    private String aggDataSql(AggConfig config, boolean prepared) {
+        Stream<ConfigComponent> filters = filtersOf(config);
         Stream<DimensionConfig> dimStream = Stream.concat(config.getColumns().stream(), config.getRows().stream());
 
         String dimColsStr = assembleDimColumns(dimStream);
         String aggColsStr = assembleAggValColumns(config.getValues().stream());
 
-        String whereStr = filterSql(filters, "WHERE");
+        String whereStr = filterSql(filters, "WHERE", prepared);
         String groupByStr = StringUtils.isBlank(dimColsStr) ? "" : "GROUP BY " + dimColsStr;
 
         StringJoiner selectColsStr = new StringJoiner(",");
@@ -109,24 +137,172 @@ public class SqlHelper {
         return exec;
     }
 
-    private String filterSql(Stream<ConfigComponent> filterStream, String prefix) {
+    /** 生成查询水位列不小于from的明细行的SQL，列为维度、值和水位列，过滤条件与assembleAggDataSql一致
+     * @param config 聚合配置
+     * @param watermarkColumn 水位列，列类型需要在SqlSyntaxHelper中
+     * @param from 水位的下界，包括等于下界的行，null表示查询全部明细行
+     * @return SQL
+     */
+    public String assembleAppendedRowsSql(AggConfig config, String watermarkColumn, String from) {
+        return appendedRowsSql(config, watermarkColumn, from, false);
+    }
+
+    /** 生成参数化的查询水位列不小于from的明细行的SQL，与assembleAppendedRowsSql一致，水位也是绑定值
+     * @param config 聚合配置
+     * @param watermarkColumn 水位列
+     * @param from 水位的下界，包括等于下界的行，null表示查询全部明细行
+     * @return 参数化SQL
+     */
+    public PreparedSql assembleAppendedRowsPreparedSql(AggConfig config, String watermarkColumn, String from) {
+        DimensionConfig watermarkFilter = watermarkFilter(watermarkColumn, from);
+        return prepare("appended:" + watermarkColumn, config, watermarkFilter,
+                () -> appendedRowsSql(config, watermarkColumn, from, true));
+    }
+
+    private String appendedRowsSql(AggConfig config, String watermarkColumn, String from, boolean prepared) {
+        Stream<ConfigComponent> filters = filtersOf(config);
+        if (from != null) {
+            filters = Stream.concat(filters, Stream.of(watermarkFilter(watermarkColumn, from)));
+        }
+        Stream<String> dimColumns = Stream.concat(config.getColumns().stream(), config.getRows().stream())
+                .map(g -> sqlSyntaxHelper.getProjectStr(g));
+        Stream<String> valColumns = config.getValues().stream().map(ValueConfig::getColumn);
+        String selectColsStr = Stream.concat(Stream.concat(dimColumns, valColumns), Stream.of(watermarkColumn))
+                .filter(e -> e != null)
+                .distinct()
+                .collect(Collectors.joining(", "));
+
+        String whereStr = filterSql(filters, "WHERE", prepared);
+        String fsql = null;
+        if (hasSubQuery) {
+            fsql = "\nSELECT %s \n FROM (\n%s\n) linlan_view \n %s";
+        } else {
+            fsql = "\nSELECT %s \n FROM %s \n %s";
+        }
+        return String.format(fsql, selectColsStr, tableName, whereStr);
+    }
+
+    private Stream<ConfigComponent> filtersOf(AggConfig config) {
+        Stream<DimensionConfig> c = config.getColumns().stream();
+        Stream<DimensionConfig> r = config.getRows().stream();
+        Stream<ConfigComponent> f = config.getFilters().stream();
+        return Stream.concat(Stream.concat(c, r), f);
+    }
+
+    private static DimensionConfig watermarkFilter(String watermarkColumn, String from) {
+        if (from == null) {
+            return null;
+        }
+        DimensionConfig watermarkFilter = new DimensionConfig();
+        watermarkFilter.setColumnName(watermarkColumn);
+        watermarkFilter.setFilterType("≥");
+        watermarkFilter.setValues(new ArrayList<>());
+        watermarkFilter.getValues().add(from);
+        return watermarkFilter;
+    }
+
+    private PreparedSql prepare(String kind, AggConfig config, Supplier<String> template) {
+        return prepare(kind, config, null, template);
+    }
+
+    /**
+     * 按聚合配置的结构查找SQL模板，同时按占位符的顺序收集绑定值，模板不存在时由template生成
+     */
+    private PreparedSql prepare(String kind, AggConfig config, DimensionConfig extraFilter, Supplier<String> template) {
+        StringBuilder shape = new StringBuilder(kind).append("|d:");
+        Stream.concat(config.getColumns().stream(), config.getRows().stream())
+                .forEach(d -> shape.append(d.getColumnName()).append(','));
+        shape.append("|v:");
+        for (ValueConfig value : config.getValues()) {
+            shape.append(value.getAggType()).append('(').append(value.getColumn()).append("),");
+        }
+        shape.append("|f:");
+        List<Object> binds = new ArrayList<>();
+        Stream<ConfigComponent> filters = filtersOf(config);
+        if (extraFilter != null) {
+            filters = Stream.concat(filters, Stream.of(extraFilter));
+        }
+        filters.forEach(e -> shapeOf(separateNull(e), shape, binds));
+        String key = shape.toString();
+        String sql = templates.get(key);
+        if (sql == null) {
+            sql = template.get();
+            if (templates.size() >= MAXIMUM_TEMPLATES) {
+                templates.clear();
+            }
+            templates.put(key, sql);
+        }
+        return new PreparedSql(sql, binds);
+    }
+
+    /**
+     * 记录过滤条件的结构并收集绑定值，与filter2SqlCondition生成占位符的顺序一致
+     */
+    private void shapeOf(ConfigComponent cc, StringBuilder shape, List<Object> binds) {
+        if (cc instanceof DimensionConfig) {
+            DimensionConfig config = (DimensionConfig) cc;
+            int size = config.getValues().size();
+            shape.append(config.getColumnName()).append(' ').append(config.getFilterType()).append(' ').append(size);
+            if (size > 0 && NULL_STRING.equals(config.getValues().get(0))
+                    && ("=".equals(config.getFilterType()) || "≠".equals(config.getFilterType()))) {
+                shape.append(" null;");
+                return;
+            }
+            shape.append(';');
+            if (size == 0 || config.getFilterType() == null) {
+                return;
+            }
+            switch (config.getFilterType()) {
+                case "=":
+                case "eq":
+                case "≠":
+                case "ne":
+                    for (int i = 0; i < size; i++) {
+                        binds.add(sqlSyntaxHelper.getDimMemberValue(config, i));
+                    }
+                    break;
+                case ">":
+                case "<":
+                case "≥":
+                case "≤":
+                    binds.add(sqlSyntaxHelper.getDimMemberValue(config, 0));
+                    break;
+                case "(a,b]":
+                case "[a,b)":
+                case "(a,b)":
+                case "[a,b]":
+                    binds.add(sqlSyntaxHelper.getDimMemberValue(config, 0));
+                    if (size == 2) {
+                        binds.add(sqlSyntaxHelper.getDimMemberValue(config, 1));
+                    }
+                    break;
+            }
+        } else if (cc instanceof CompositeConfig) {
+            CompositeConfig compositeConfig = (CompositeConfig) cc;
+            shape.append(compositeConfig.getType()).append('(');
+            compositeConfig.getConfigComponents().forEach(e -> shapeOf(separateNull(e), shape, binds));
+            shape.append(')');
+        }
+    }
+
+    private String filterSql(Stream<ConfigComponent> filterStream, String prefix, boolean prepared) {
         StringJoiner where = new StringJoiner("\nAND ", prefix + " ", "");
         where.setEmptyValue("");
         filterStream.map(e -> separateNull(e))
-                .map(e -> configComponentToSql(e))
+                .map(e -> configComponentToSql(e, prepared))
                 .filter(e -> e != null)
                 .forEach(where::add);
         return where.toString();
     }
 
-    private String configComponentToSql(ConfigComponent cc) {
+    private String configComponentToSql(ConfigComponent cc, boolean prepared) {
         if (cc instanceof DimensionConfig) {
-            return filter2SqlCondition.apply((DimensionConfig) cc);
+            return filter2SqlCondition((DimensionConfig) cc, prepared);
         } else if (cc instanceof CompositeConfig) {
             CompositeConfig compositeConfig = (CompositeConfig) cc;
             String sql = compositeConfig.getConfigComponents().stream()
                     .map(e -> separateNull(e))
-                    .map(e -> configComponentToSql(e))
+                    .map(e -> configComponentToSql(e, prepared))
                     .collect(Collectors.joining(" " + compositeConfig.getType() + " "));
             return "(" + sql + ")";
         }
@@ -134,18 +310,18 @@ public class SqlHelper {
     }
 
     /**
-     * Parser a single filter configuration to sql syntax
+     * Parser a single filter configuration to sql syntax, the values are ? placeholders when prepared
      */
-    private Function<DimensionConfig, String> filter2SqlCondition = (config) -> {
+    private String filter2SqlCondition(DimensionConfig config, boolean prepared) {
         if (config.getValues().size() == 0) {
             return null;
         }
 
         String fieldName = sqlSyntaxHelper.getProjectStr(config);
-        String v0 = sqlSyntaxHelper.getDimMemberStr(config, 0);
+        String v0 = prepared ? "?" : sqlSyntaxHelper.getDimMemberStr(config, 0);
         String v1 = null;
         if (config.getValues().size() == 2) {
-            v1 = sqlSyntaxHelper.getDimMemberStr(config, 1);
+            v1 = prepared ? "?" : sqlSyntaxHelper.getDimMemberStr(config, 1);
         }
 
         if (NULL_STRING.equals(config.getValues().get(0))) {
@@ -159,10 +335,10 @@ public class SqlHelper {
         switch (config.getFilterType()) {
             case "=":
             case "eq":
-                return fieldName + " IN (" + valueList(config) + ")";
+                return fieldName + " IN (" + valueList(config, prepared) + ")";
             case "≠":
             case "ne":
-                return fieldName + " NOT IN (" + valueList(config) + ")";
+                return fieldName + " NOT IN (" + valueList(config, prepared) + ")";
             case ">":
                 return rangeQuery(fieldName, v0, null);
             case "<":
@@ -181,12 +357,12 @@ public class SqlHelper {
                 return rangeQuery(fieldName, v0, v1, true, true);
         }
         return null;
-    };
+    }
 
-    private String valueList(DimensionConfig config) {
+    private String valueList(DimensionConfig config, boolean prepared) {
         String resultList = IntStream.range(0, config.getValues().size())
                 .boxed()
-                .map(i -> sqlSyntaxHelper.getDimMemberStr(config, i))
+                .map(i -> prepared ? "?" : sqlSyntaxHelper.getDimMemberStr(config, i))
                 .collect(Collectors
                 .joining(","));
         return resultList;
@@ -238,6 +414,7 @@ public class SqlHelper {
 
     public SqlHelper setSqlSyntaxHelper(SqlSyntaxHelper sqlSyntaxHelper) {
         this.sqlSyntaxHelper = sqlSyntaxHelper;
+        templates.clear();
         return this;
     }
 
@@ -252,8 +429,13 @@ public class SqlHelper {
                     cc.getValues().stream().anyMatch(s -> NULL_STRING.equals(s))) {
                 CompositeConfig compositeConfig = new CompositeConfig();
                 compositeConfig.setType("=".equals(cc.getFilterType()) ? "OR" : "AND");
-                cc.setValues(cc.getValues().stream().filter(s -> !NULL_STRING.equals(s)).collect(Collectors.toList()));
-                compositeConfig.getConfigComponents().add(cc);
+                DimensionConfig valueCc = new DimensionConfig();
+                valueCc.setId(cc.getId());
+                valueCc.setColumnName(cc.getColumnName());
+                valueCc.setFilterType(cc.getFilterType());
+                valueCc.setCustom(cc.getCustom());
+                valueCc.setValues(cc.getValues().stream().filter(s -> !NULL_STRING.equals(s)).collect(Collectors.toList()));
+                compositeConfig.getConfigComponents().add(valueCc);
                 DimensionConfig nullCc = new DimensionConfig();
                 nullCc.setColumnName(cc.getColumnName());
                 nullCc.setFilterType(cc.getFilterType());
@@ -18,6 +18,10 @@ package io.linlan.datas.core.utils;
 import io.linlan.datas.core.provider.config.DimensionConfig;
 import io.linlan.datas.core.provider.config.ValueConfig;
 
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Map;
 
@@ -68,6 +72,67 @@ public class SqlSyntaxHelper {
         }
     }
 
+    /** 维度分类的绑定值，数值类型的列转换为BigDecimal，日期和时间类型的列转换为java.sql的Date、Time和Timestamp，
+     * 不能转换的值和其他列与getDimMemberStr一致使用字符串
+     * @param config 维度配置
+     * @param index 值的序号
+     * @return 绑定值
+     */
+    public Object getDimMemberValue(DimensionConfig config, int index) {
+        String value = config.getValues().get(index);
+        Integer type = columnTypes == null ? null : columnTypes.get(config.getColumnName().toUpperCase());
+        if (type == null) {
+            return value;
+        }
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                try {
+                    return new BigDecimal(value.trim());
+                } catch (NumberFormatException e) {
+                    return value;
+                }
+            case Types.DATE:
+                try {
+                    return Date.valueOf(value.trim());
+                } catch (IllegalArgumentException e) {
+                    Timestamp timestamp = timestampOf(value);
+                    return timestamp == null ? value : new Date(timestamp.getTime());
+                }
+            case Types.TIME:
+                try {
+                    return Time.valueOf(value.trim());
+                } catch (IllegalArgumentException e) {
+                    return value;
+                }
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                Timestamp timestamp = timestampOf(value);
+                return timestamp == null ? value : timestamp;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * 解析yyyy-mm-dd hh:mm:ss[.f]格式的时间，只有日期时为当天零点，不能解析时返回null
+     */
+    private static Timestamp timestampOf(String value) {
+        String text = value.trim();
+        try {
+            return text.length() == 10 ? new Timestamp(Date.valueOf(text).getTime()) : Timestamp.valueOf(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /** 聚合函数类型
      * @param vConfig
      * @return
@@ -84,6 +149,7 @@ public class SqlSyntaxHelper {
             case "min":
                 return "MIN(" + aggExp + ")";
             case "distinct":
+            case "approx_distinct":
                 return "COUNT(DISTINCT " + aggExp + ")";
             default:
                 return "COUNT(" + aggExp + ")";
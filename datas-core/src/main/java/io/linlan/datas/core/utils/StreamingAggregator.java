@@ -0,0 +1,157 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.result.ColumnIndex;
+import io.linlan.datas.core.provider.result.ColumnarAggregateResult;
+import io.linlan.datas.core.provider.result.ColumnarResultBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ *
+ * Filename:StreamingAggregator.java
+ * Desc: 流式聚合类，逐行读取JDBC的查询结果或者行迭代器，边读取边将维度的null转换为NULL_STRING并聚合，
+ * 不生成List&lt;String[]&gt;和String[][]，读取时只重复使用一个行数组，内存只与分组数有关，与行数无关。
+ * 聚合明细行时与SQL一致忽略指标的null，结果与执行assembleAggDataSql的SQL一致。
+ * fetchSize在执行查询之前设置到语句上，驱动才会分批读取：MySQL还需要useCursorFetch=true，
+ * PostgreSQL还需要关闭连接的自动提交，否则驱动仍会在执行时一次读入全部结果
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 00:40
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class StreamingAggregator {
+
+    /**
+     * 默认每次从数据库读取的行数
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private StreamingAggregator() {
+    }
+
+    /** 创建只向前、只读并设置了fetchSize的语句，参数化SQL在执行前绑定参数
+     * @param connection 数据库连接
+     * @param sql SQL
+     * @param fetchSize 每次从数据库读取的行数，0表示使用驱动的默认值
+     * @return 语句，由调用方关闭
+     * @throws SQLException 创建失败
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql, int fetchSize) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+        return statement;
+    }
+
+    /** 流式执行assembleAggDataSql生成的SQL，结果与transform2AggResult一致，每个分组一行
+     * @param config 聚合配置
+     * @param connection 数据库连接，不会被关闭
+     * @param sql assembleAggDataSql生成的SQL
+     * @param fetchSize 每次从数据库读取的行数，0表示使用驱动的默认值
+     * @return 列式聚合结果
+     * @throws SQLException 读取失败
+     */
+    public static ColumnarAggregateResult transform2AggResult(AggConfig config, Connection connection, String sql, int fetchSize) throws SQLException {
+        try (PreparedStatement statement = prepareStatement(connection, sql, fetchSize)) {
+            return transform2AggResult(config, statement);
+        }
+    }
+
+    /** 流式执行聚合查询的语句，结果与transform2AggResult一致，每个分组一行
+     * @param config 聚合配置
+     * @param statement 已绑定参数的语句，fetchSize需要已设置，例如由prepareStatement创建，不会被关闭
+     * @return 列式聚合结果
+     * @throws SQLException 读取失败
+     */
+    public static ColumnarAggregateResult transform2AggResult(AggConfig config, PreparedStatement statement) throws SQLException {
+        List<ColumnIndex> columnList = DataProviderUtils.getColumnList(config);
+        int dimSize = config.getColumns().size() + config.getRows().size();
+        ColumnarResultBuilder builder = new ColumnarResultBuilder(columnList);
+        String[] row = new String[columnList.size()];
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getString(i + 1);
+                    if (row[i] == null && i < dimSize) {
+                        row[i] = SqlHelper.NULL_STRING;
+                    }
+                }
+                builder.add(row);
+            }
+        }
+        return builder.build();
+    }
+
+    /** 流式聚合明细查询的结果，列名取自ResultSetMetaData的列标签，先按维度和过滤条件过滤
+     * @param config 聚合配置
+     * @param connection 数据库连接，不会被关闭
+     * @param sql 明细查询的SQL
+     * @param fetchSize 每次从数据库读取的行数，0表示使用驱动的默认值
+     * @return 列式聚合结果
+     * @throws SQLException 读取失败
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, Connection connection, String sql, int fetchSize) throws SQLException {
+        try (PreparedStatement statement = prepareStatement(connection, sql, fetchSize)) {
+            return aggregate(config, statement);
+        }
+    }
+
+    /** 流式聚合明细查询的结果，列名取自ResultSetMetaData的列标签，先按维度和过滤条件过滤
+     * @param config 聚合配置
+     * @param statement 已绑定参数的明细查询语句，fetchSize需要已设置，例如由prepareStatement创建，不会被关闭
+     * @return 列式聚合结果
+     * @throws SQLException 读取失败
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            String[] columnNames = ResultSetIterator.columnNames(rs);
+            return aggregate(config, columnNames, new ResultSetIterator(rs, columnNames.length));
+        } catch (IllegalStateException e) {
+            throw ResultSetIterator.unwrap(e);
+        }
+    }
+
+    /** 流式聚合明细行，行数组在聚合后不被保留，迭代器可以重复返回同一个数组，指标的null被忽略
+     * @param config 聚合配置
+     * @param columnNames 明细行的列名，不区分大小写
+     * @param rows 明细行的迭代器
+     * @return 列式聚合结果
+     */
+    public static ColumnarAggregateResult aggregate(AggConfig config, String[] columnNames, Iterator<String[]> rows) {
+        HashGroupBy groupBy = HashGroupBy.of(config, columnNames, true);
+        Predicate<String[]> filter = HashGroupBy.filterOf(config, columnNames);
+        while (rows.hasNext()) {
+            String[] row = rows.next();
+            if (filter.test(row)) {
+                groupBy.add(row);
+            }
+        }
+        return groupBy.toResult(DataProviderUtils.getColumnList(config));
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.commons.cache.HeapCacheManager;
+import io.linlan.datas.core.abs.Aggregatable;
+import io.linlan.datas.core.abs.IncrementalSource;
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.AggregateResult;
+import io.linlan.datas.core.utils.PreparedSql;
+import io.linlan.datas.core.utils.ResultSetIterator;
+import io.linlan.datas.core.utils.SqlHelper;
+import io.linlan.datas.core.utils.StreamingAggregator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * Filename:IncrementalAggregatableTest.java
+ * Desc: 增量刷新的聚合装饰类的测试类，每次追加明细行后增量刷新的结果与执行assembleAggDataSql的结果比较，明细数据包含null
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 10:10
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class IncrementalAggregatableTest {
+
+    private Connection connection;
+    private SqlHelper sqlHelper;
+    private int id;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:incremental_aggregatable_test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE SALES (ID INT, REGION VARCHAR(16), CHANNEL VARCHAR(16), AMT DOUBLE)");
+        }
+        Map<String, Integer> columnTypes = new HashMap<>();
+        columnTypes.put("ID", Types.INTEGER);
+        columnTypes.put("REGION", Types.VARCHAR);
+        columnTypes.put("CHANNEL", Types.VARCHAR);
+        columnTypes.put("AMT", Types.DOUBLE);
+        sqlHelper = new SqlHelper("SALES", false);
+        sqlHelper.getSqlSyntaxHelper().setColumnTypes(columnTypes);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE SALES");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void nullMeasuresAreIgnored() throws Exception {
+        Source source = new Source();
+        IncrementalAggregatable aggregatable = new IncrementalAggregatable(source, new HeapCacheManager<>(), "ID", 60000);
+        AggConfig config = config(Arrays.asList("REGION"));
+        insert("x", "web", 5d);
+        insert("x", "web", null);
+        insert("y", "web", null);
+        aggregatable.queryAggData(config);
+        insert("x", "shop", 7d);
+        Map<String, String[]> rows = byKey(aggregatable.queryAggData(config), 1);
+        String[] x = rows.get("x");
+        assertEquals(12d, Double.parseDouble(x[1]), 1e-9);
+        assertEquals(6d, Double.parseDouble(x[2]), 1e-9);
+        assertEquals(7d, Double.parseDouble(x[3]), 1e-9);
+        assertEquals(5d, Double.parseDouble(x[4]), 1e-9);
+        assertEquals(2d, Double.parseDouble(x[5]), 1e-9);
+        String[] y = rows.get("y");
+        assertNull(y[1]);
+        assertNull(y[2]);
+        assertEquals(0d, Double.parseDouble(y[5]), 1e-9);
+    }
+
+    @Test
+    public void refreshesMatchSql() throws Exception {
+        Source source = new Source();
+        IncrementalAggregatable aggregatable = new IncrementalAggregatable(source, new HeapCacheManager<>(), "ID", 60000);
+        AggConfig config = config(Arrays.asList("REGION", "CHANNEL"));
+        config.getFilters().add(dimension("REGION", "≠", "r1"));
+        Random random = new Random(20261018);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 200 + round * 37; i++) {
+                insert(random.nextInt(10) == 0 ? null : "r" + random.nextInt(4),
+                        random.nextInt(8) == 0 ? null : "c" + random.nextInt(3),
+                        random.nextInt(3) == 0 ? null : (double) (random.nextInt(20000) - 5000) / 100);
+            }
+            assertSame(source.queryAggData(config), aggregatable.queryAggData(config), 2);
+        }
+    }
+
+    private static void assertSame(AggregateResult expected, AggregateResult actual, int dims) {
+        Map<String, String[]> expectedRows = byKey(expected, dims);
+        Map<String, String[]> actualRows = byKey(actual, dims);
+        assertEquals(expectedRows.keySet(), actualRows.keySet());
+        for (Map.Entry<String, String[]> e : expectedRows.entrySet()) {
+            String[] row = actualRows.get(e.getKey());
+            for (int i = dims; i < row.length; i++) {
+                if (e.getValue()[i] == null) {
+                    assertNull(e.getKey() + " " + i, row[i]);
+                } else {
+                    assertEquals(e.getKey() + " " + i, Double.parseDouble(e.getValue()[i]), Double.parseDouble(row[i]), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static Map<String, String[]> byKey(AggregateResult result, int dims) {
+        Map<String, String[]> rows = new TreeMap<>();
+        for (String[] row : result.getData()) {
+            rows.put(String.join("|", Arrays.copyOf(row, dims)), row);
+        }
+        return rows;
+    }
+
+    private void insert(String region, String channel, Double amt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO SALES VALUES (?, ?, ?, ?)")) {
+            statement.setInt(1, ++id);
+            statement.setString(2, region);
+            statement.setString(3, channel);
+            statement.setObject(4, amt, Types.DOUBLE);
+            statement.executeUpdate();
+        }
+    }
+
+    private static AggConfig config(List<String> rows) {
+        AggConfig config = new AggConfig();
+        List<DimensionConfig> dimensions = new ArrayList<>();
+        for (String row : rows) {
+            dimensions.add(dimension(row, "="));
+        }
+        config.setRows(dimensions);
+        config.setColumns(new ArrayList<>());
+        config.setFilters(new ArrayList<>());
+        config.setValues(new ArrayList<>(Arrays.asList(value("sum"), value("avg"), value("max"), value("min"), value("count"))));
+        return config;
+    }
+
+    private static DimensionConfig dimension(String column, String filterType, String... values) {
+        DimensionConfig config = new DimensionConfig();
+        config.setColumnName(column);
+        config.setFilterType(filterType);
+        config.setValues(new ArrayList<>(Arrays.asList(values)));
+        return config;
+    }
+
+    private static ValueConfig value(String aggType) {
+        ValueConfig config = new ValueConfig();
+        config.setColumn("AMT");
+        config.setAggType(aggType);
+        return config;
+    }
+
+    /**
+     * 通过SQL聚合，并流式读取追加的明细行的数据源
+     */
+    private class Source implements Aggregatable, IncrementalSource {
+
+        @Override
+        public String[] queryDimVals(String columnName, AggConfig config) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String[] getColumn(boolean reload) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AggregateResult queryAggData(AggConfig ac) throws Exception {
+            return StreamingAggregator.transform2AggResult(ac, connection, sqlHelper.assembleAggDataSql(ac), 0);
+        }
+
+        @Override
+        public void queryAppendedRows(AggConfig ac, String watermarkColumn, String from, RowsHandler handler) throws Exception {
+            PreparedSql sql = sqlHelper.assembleAppendedRowsPreparedSql(ac, watermarkColumn, from);
+            try (PreparedStatement statement = StreamingAggregator.prepareStatement(connection, sql.getSql(), 100)) {
+                for (int i = 0; i < sql.getBinds().size(); i++) {
+                    statement.setObject(i + 1, sql.getBinds().get(i));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    String[] columnNames = ResultSetIterator.columnNames(rs);
+                    handler.handle(columnNames, new ResultSetIterator(rs, columnNames.length));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.cube;
+
+import io.linlan.commons.cache.HeapCacheManager;
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.AggregateResult;
+import io.linlan.datas.core.utils.SqlHelper;
+import io.linlan.datas.core.utils.StreamingAggregator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * Filename:RollupCubeTest.java
+ * Desc: 上卷立方体的测试类，由立方体回答的结果与执行assembleAggDataSql的结果比较，明细数据包含null
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 04:10
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class RollupCubeTest {
+
+    private static final String DETAIL_SQL = "SELECT REGION, CHANNEL, AMT, QTY FROM SALES";
+
+    private static Connection connection;
+    private static SqlHelper sqlHelper;
+    private static RollupCube cube;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:rollup_cube_test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE SALES (REGION VARCHAR(16), CHANNEL VARCHAR(16), AMT DOUBLE, QTY DOUBLE)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO SALES VALUES (?, ?, ?, ?)")) {
+            insert(statement, "x", "web", 10d, 1d);
+            insert(statement, "x", "web", null, 2d);
+            insert(statement, "x", "shop", 20d, null);
+            insert(statement, "y", "web", null, null);
+            insert(statement, "y", null, null, 3d);
+            Random random = new Random(20261018);
+            for (int i = 0; i < 2000; i++) {
+                insert(statement,
+                        random.nextInt(10) == 0 ? null : "r" + random.nextInt(6),
+                        random.nextInt(8) == 0 ? null : "c" + random.nextInt(3),
+                        random.nextInt(5) == 0 ? null : (double) (random.nextInt(20000) - 5000) / 100,
+                        random.nextInt(4) == 0 ? null : (double) random.nextInt(100));
+            }
+            statement.executeBatch();
+        }
+        Map<String, Integer> columnTypes = new HashMap<>();
+        columnTypes.put("REGION", Types.VARCHAR);
+        columnTypes.put("CHANNEL", Types.VARCHAR);
+        columnTypes.put("AMT", Types.DOUBLE);
+        columnTypes.put("QTY", Types.DOUBLE);
+        sqlHelper = new SqlHelper("SALES", false);
+        sqlHelper.getSqlSyntaxHelper().setColumnTypes(columnTypes);
+
+        CubeDefinition definition = new CubeDefinition();
+        definition.setTableName("SALES");
+        definition.setDimensions(Arrays.asList("REGION", "CHANNEL"));
+        definition.setMeasures(Arrays.asList("AMT", "QTY"));
+        CubeMaterializer materializer = new CubeMaterializer(new HeapCacheManager<>(), 60000);
+        cube = materializer.materialize(definition, connection, DETAIL_SQL, 100);
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void nullMeasuresAreIgnored() throws Exception {
+        AggConfig config = config(Arrays.asList("REGION"),
+                value("AMT", "avg"), value("AMT", "min"), value("AMT", "max"), value("AMT", "sum"), value("AMT", "count"));
+        config.getFilters().add(filter("REGION", "=", "x", "y"));
+        Map<String, String[]> rows = byKey(cube.query(config), 1);
+        assertEquals(15d, Double.parseDouble(rows.get("x")[1]), 1e-9);
+        assertEquals(10d, Double.parseDouble(rows.get("x")[2]), 1e-9);
+        assertEquals(20d, Double.parseDouble(rows.get("x")[3]), 1e-9);
+        assertEquals(30d, Double.parseDouble(rows.get("x")[4]), 1e-9);
+        assertEquals(2d, Double.parseDouble(rows.get("x")[5]), 1e-9);
+        assertNull(rows.get("y")[1]);
+        assertNull(rows.get("y")[2]);
+        assertNull(rows.get("y")[4]);
+        assertEquals(0d, Double.parseDouble(rows.get("y")[5]), 1e-9);
+        assertSameAsSql(config);
+    }
+
+    @Test
+    public void answersMatchSql() throws Exception {
+        ValueConfig[] values = {value("AMT", "sum"), value("AMT", "avg"), value("AMT", "max"), value("AMT", "min"),
+                value("AMT", "count"), value("QTY", "sum"), value("QTY", "avg"), value("QTY", "count"),
+                value("CHANNEL", "count"), value("*", "count")};
+        assertSameAsSql(config(Arrays.asList("REGION", "CHANNEL"), values));
+        assertSameAsSql(config(Arrays.asList("CHANNEL"), values));
+        assertSameAsSql(config(Arrays.asList("REGION"), values));
+        assertSameAsSql(config(new ArrayList<>(), values));
+        AggConfig filtered = config(Arrays.asList("CHANNEL"), values);
+        filtered.getFilters().add(filter("REGION", "≠", "r1", SqlHelper.NULL_STRING));
+        assertSameAsSql(filtered);
+    }
+
+    @Test
+    public void countOfColumnNotInCubeIsNotCovered() {
+        assertFalse(cube.covers(config(Arrays.asList("REGION"), value("NOT_IN_CUBE", "count"))));
+        assertFalse(cube.covers(config(Arrays.asList("REGION"), value("AMT", "distinct"))));
+        assertTrue(cube.covers(config(Arrays.asList("REGION"), value("CHANNEL", "count"))));
+        assertTrue(cube.covers(config(Arrays.asList("REGION"), value("AMT", "count"))));
+    }
+
+    private static void assertSameAsSql(AggConfig config) throws Exception {
+        int dims = config.getColumns().size() + config.getRows().size();
+        AggregateResult expected = StreamingAggregator.transform2AggResult(config, connection, sqlHelper.assembleAggDataSql(config), 0);
+        Map<String, String[]> expectedRows = byKey(expected, dims);
+        Map<String, String[]> actualRows = byKey(cube.query(config), dims);
+        assertEquals(expectedRows.keySet(), actualRows.keySet());
+        for (Map.Entry<String, String[]> e : expectedRows.entrySet()) {
+            String[] actual = actualRows.get(e.getKey());
+            for (int i = dims; i < actual.length; i++) {
+                String message = e.getKey() + " " + config.getValues().get(i - dims).getAggType()
+                        + "(" + config.getValues().get(i - dims).getColumn() + ")";
+                if (e.getValue()[i] == null) {
+                    assertNull(message, actual[i]);
+                } else {
+                    assertEquals(message, Double.parseDouble(e.getValue()[i]), Double.parseDouble(actual[i]), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static Map<String, String[]> byKey(AggregateResult result, int dims) {
+        Map<String, String[]> rows = new TreeMap<>();
+        for (String[] row : result.getData()) {
+            rows.put(String.join("|", Arrays.copyOf(row, dims)), row);
+        }
+        return rows;
+    }
+
+    private static void insert(PreparedStatement statement, String region, String channel, Double amt, Double qty) throws SQLException {
+        statement.setString(1, region);
+        statement.setString(2, channel);
+        statement.setObject(3, amt, Types.DOUBLE);
+        statement.setObject(4, qty, Types.DOUBLE);
+        statement.addBatch();
+    }
+
+    private static AggConfig config(List<String> rows, ValueConfig... values) {
+        AggConfig config = new AggConfig();
+        List<DimensionConfig> dimensions = new ArrayList<>();
+        for (String row : rows) {
+            dimensions.add(filter(row, "=", new String[0]));
+        }
+        config.setRows(dimensions);
+        config.setColumns(new ArrayList<>());
+        config.setFilters(new ArrayList<>());
+        config.setValues(new ArrayList<>(Arrays.asList(values)));
+        return config;
+    }
+
+    private static DimensionConfig filter(String column, String filterType, String... values) {
+        DimensionConfig config = new DimensionConfig();
+        config.setColumnName(column);
+        config.setFilterType(filterType);
+        config.setValues(new ArrayList<>(Arrays.asList(values)));
+        return config;
+    }
+
+    private static ValueConfig value(String column, String aggType) {
+        ValueConfig config = new ValueConfig();
+        config.setColumn(column);
+        config.setAggType(aggType);
+        return config;
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright 2020-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.linlan.datas.core.utils;
+
+import io.linlan.datas.core.provider.config.AggConfig;
+import io.linlan.datas.core.provider.config.DimensionConfig;
+import io.linlan.datas.core.provider.config.ValueConfig;
+import io.linlan.datas.core.provider.result.AggregateResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * Filename:StreamingAggregatorTest.java
+ * Desc: 流式聚合类的测试类，明细行的流式聚合与执行assembleAggDataSql的结果比较，明细数据包含null
+ *
+ * @author Linlan
+ * CreateTime:2026/10/18 09:40
+ *
+ * @version 1.0
+ * @since 1.0
+ *
+ */
+public class StreamingAggregatorTest {
+
+    private static final String DETAIL_SQL = "SELECT REGION, CHANNEL, AMT FROM SALES";
+
+    private static Connection connection;
+    private static SqlHelper sqlHelper;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:streaming_aggregator_test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE SALES (REGION VARCHAR(16), CHANNEL VARCHAR(16), AMT DOUBLE)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO SALES VALUES (?, ?, ?)")) {
+            insert(statement, "x", "web", 5d);
+            insert(statement, "x", "web", null);
+            insert(statement, "x", "web", 7d);
+            insert(statement, "y", "shop", null);
+            Random random = new Random(20261018);
+            for (int i = 0; i < 1000; i++) {
+                insert(statement,
+                        random.nextInt(10) == 0 ? null : "r" + random.nextInt(5),
+                        random.nextInt(8) == 0 ? null : "c" + random.nextInt(3),
+                        random.nextInt(4) == 0 ? null : (double) (random.nextInt(20000) - 5000) / 100);
+            }
+            statement.executeBatch();
+        }
+        Map<String, Integer> columnTypes = new HashMap<>();
+        columnTypes.put("REGION", Types.VARCHAR);
+        columnTypes.put("CHANNEL", Types.VARCHAR);
+        columnTypes.put("AMT", Types.DOUBLE);
+        sqlHelper = new SqlHelper("SALES", false);
+        sqlHelper.getSqlSyntaxHelper().setColumnTypes(columnTypes);
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void nullMeasuresAreIgnored() throws Exception {
+        AggConfig config = config(Arrays.asList("REGION", "CHANNEL"));
+        Map<String, String[]> rows = byKey(StreamingAggregator.aggregate(config, connection, DETAIL_SQL, 0), 2);
+        String[] x = rows.get("x|web");
+        assertEquals(12d, Double.parseDouble(x[2]), 1e-9);
+        assertEquals(6d, Double.parseDouble(x[3]), 1e-9);
+        assertEquals(7d, Double.parseDouble(x[4]), 1e-9);
+        assertEquals(5d, Double.parseDouble(x[5]), 1e-9);
+        assertEquals(2d, Double.parseDouble(x[6]), 1e-9);
+        String[] y = rows.get("y|shop");
+        assertNull(y[2]);
+        assertNull(y[3]);
+        assertEquals(0d, Double.parseDouble(y[6]), 1e-9);
+    }
+
+    @Test
+    public void detailRowsMatchSql() throws Exception {
+        assertSameAsSql(config(Arrays.asList("REGION", "CHANNEL")));
+        assertSameAsSql(config(Arrays.asList("CHANNEL")));
+        assertSameAsSql(config(new ArrayList<>()));
+        AggConfig filtered = config(Arrays.asList("REGION"));
+        filtered.getFilters().add(dimension("CHANNEL", "≠", "c1", SqlHelper.NULL_STRING));
+        assertSameAsSql(filtered);
+    }
+
+    private static void assertSameAsSql(AggConfig config) throws Exception {
+        int dims = config.getColumns().size() + config.getRows().size();
+        Map<String, String[]> expected = byKey(StreamingAggregator.transform2AggResult(config, connection, sqlHelper.assembleAggDataSql(config), 0), dims);
+        Map<String, String[]> actual = byKey(StreamingAggregator.aggregate(config, connection, DETAIL_SQL, 0), dims);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, String[]> e : expected.entrySet()) {
+            String[] row = actual.get(e.getKey());
+            for (int i = dims; i < row.length; i++) {
+                String message = e.getKey() + " " + config.getValues().get(i - dims).getAggType();
+                if (e.getValue()[i] == null) {
+                    assertNull(message, row[i]);
+                } else {
+                    assertEquals(message, Double.parseDouble(e.getValue()[i]), Double.parseDouble(row[i]), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static Map<String, String[]> byKey(AggregateResult result, int dims) {
+        Map<String, String[]> rows = new TreeMap<>();
+        for (String[] row : result.getData()) {
+            rows.put(String.join("|", Arrays.copyOf(row, dims)), row);
+        }
+        return rows;
+    }
+
+    private static void insert(PreparedStatement statement, String region, String channel, Double amt) throws SQLException {
+        statement.setString(1, region);
+        statement.setString(2, channel);
+        statement.setObject(3, amt, Types.DOUBLE);
+        statement.addBatch();
+    }
+
+    private static AggConfig config(List<String> rows) {
+        AggConfig config = new AggConfig();
+        List<DimensionConfig> dimensions = new ArrayList<>();
+        for (String row : rows) {
+            dimensions.add(dimension(row, "="));
+        }
+        config.setRows(dimensions);
+        config.setColumns(new ArrayList<>());
+        config.setFilters(new ArrayList<>());
+        config.setValues(new ArrayList<>(Arrays.asList(value("sum"), value("avg"), value("max"), value("min"), value("count"))));
+        return config;
+    }
+
+    private static DimensionConfig dimension(String column, String filterType, String... values) {
+        DimensionConfig config = new DimensionConfig();
+        config.setColumnName(column);
+        config.setFilterType(filterType);
+        config.setValues(new ArrayList<>(Arrays.asList(values)));
+        return config;
+    }
+
+    private static ValueConfig value(String aggType) {
+        ValueConfig config = new ValueConfig();
+        config.setColumn("AMT");
+        config.setAggType(aggType);
+        return config;
+    }
+}